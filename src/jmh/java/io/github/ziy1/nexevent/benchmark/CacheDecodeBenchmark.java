@@ -0,0 +1,124 @@
+package io.github.ziy1.nexevent.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import io.github.ziy1.nexevent.cache.TypedJacksonRedisSerializer;
+import io.github.ziy1.nexevent.dto.CachedEventsDto;
+import io.github.ziy1.nexevent.dto.TicketMasterApiResponseDto;
+import io.github.ziy1.nexevent.mapper.EventMapper;
+
+// Redis cache hit decode cost: the old Object serializer + per-hit ObjectMapper convertValue
+// against the typed serializer in JSON and Smile, for both the raw Ticketmaster response and the
+// trimmed event projection that is cached today. Payload sizes are printed during setup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheDecodeBenchmark {
+  private Jackson2JsonRedisSerializer<Object> legacySerializer;
+  private TypedJacksonRedisSerializer<TicketMasterApiResponseDto> jsonSerializer;
+  private TypedJacksonRedisSerializer<TicketMasterApiResponseDto> smileSerializer;
+
+  private TypedJacksonRedisSerializer<CachedEventsDto> projectionJsonSerializer;
+  private TypedJacksonRedisSerializer<CachedEventsDto> projectionSmileSerializer;
+
+  private byte[] legacyPayload;
+  private byte[] jsonPayload;
+  private byte[] smilePayload;
+  private byte[] projectionJsonPayload;
+  private byte[] projectionSmilePayload;
+
+  @Setup
+  public void setUp() throws Exception {
+    ObjectMapper jsonMapper =
+        new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    ObjectMapper smileMapper =
+        new ObjectMapper(new SmileFactory())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    TicketMasterApiResponseDto response =
+        jsonMapper.readValue(
+            Fixtures.load(Fixtures.TICKETMASTER_EVENTS), TicketMasterApiResponseDto.class);
+
+    legacySerializer = new Jackson2JsonRedisSerializer<>(Object.class);
+    jsonSerializer =
+        new TypedJacksonRedisSerializer<>(jsonMapper, TicketMasterApiResponseDto.class);
+    smileSerializer =
+        new TypedJacksonRedisSerializer<>(smileMapper, TicketMasterApiResponseDto.class);
+
+    projectionJsonSerializer = new TypedJacksonRedisSerializer<>(jsonMapper, CachedEventsDto.class);
+    projectionSmileSerializer =
+        new TypedJacksonRedisSerializer<>(smileMapper, CachedEventsDto.class);
+
+    EventMapper eventMapper = new EventMapper();
+    CachedEventsDto projection =
+        new CachedEventsDto(
+            response.getEmbedded().getEvents().stream().map(eventMapper::toCachedEvent).toList(),
+            System.currentTimeMillis(),
+            0L);
+
+    legacyPayload = legacySerializer.serialize(response);
+    jsonPayload = jsonSerializer.serialize(response);
+    smilePayload = smileSerializer.serialize(response);
+    projectionJsonPayload = projectionJsonSerializer.serialize(projection);
+    projectionSmilePayload = projectionSmileSerializer.serialize(projection);
+
+    System.out.printf(
+        "%nPayload bytes: legacy=%d json=%d smile=%d projectionJson=%d projectionSmile=%d%n",
+        legacyPayload.length,
+        jsonPayload.length,
+        smilePayload.length,
+        projectionJsonPayload.length,
+        projectionSmilePayload.length);
+  }
+
+  @Benchmark
+  public TicketMasterApiResponseDto legacyConvertValue() {
+    Object cachedValue = legacySerializer.deserialize(legacyPayload);
+    if (cachedValue instanceof LinkedHashMap) {
+      ObjectMapper mapper = new ObjectMapper();
+      mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+      return mapper.convertValue(cachedValue, TicketMasterApiResponseDto.class);
+    }
+    return null;
+  }
+
+  @Benchmark
+  public TicketMasterApiResponseDto typedJson() {
+    return jsonSerializer.deserialize(jsonPayload);
+  }
+
+  @Benchmark
+  public TicketMasterApiResponseDto typedSmile() {
+    return smileSerializer.deserialize(smilePayload);
+  }
+
+  @Benchmark
+  public CachedEventsDto projectionJson() {
+    return projectionJsonSerializer.deserialize(projectionJsonPayload);
+  }
+
+  @Benchmark
+  public CachedEventsDto projectionSmile() {
+    return projectionSmileSerializer.deserialize(projectionSmilePayload);
+  }
+}
@@ -0,0 +1,131 @@
+package io.github.ziy1.nexevent.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.dto.EventDto;
+import io.github.ziy1.nexevent.dto.ResponseMessage;
+import io.github.ziy1.nexevent.dto.TicketMasterApiResponseDto;
+import io.github.ziy1.nexevent.mapper.EventMapper;
+import io.github.ziy1.nexevent.util.GeoDistanceUtil;
+import io.github.ziy1.nexevent.util.StreamUtils;
+
+// Per-request CPU work once events are in hand, on one recorded Ticketmaster page: mapping the
+// response DTO, id dedup, the cache hit conversion (distances from the caller plus favorite
+// flags) and writing the ResponseMessage body the way Spring's ObjectMapper does.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventPathBenchmark {
+  // A point in the fixture's area, so distances are realistic
+  private static final double LATITUDE = 34.05;
+  private static final double LONGITUDE = -118.25;
+
+  private final EventMapper eventMapper = new EventMapper();
+
+  private List<TicketMasterApiResponseDto.Embedded.Event> events;
+  // The page twice over, as when neighbouring pages overlap
+  private List<TicketMasterApiResponseDto.Embedded.Event> duplicatedEvents;
+  private List<CachedEventDto> cachedEvents;
+  private Set<String> favoriteEventIds;
+  private ResponseMessage<List<EventDto>> responseMessage;
+  private ObjectWriter responseWriter;
+
+  @Setup
+  public void setUp() throws Exception {
+    TicketMasterApiResponseDto response =
+        new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .readValue(
+                Fixtures.load(Fixtures.TICKETMASTER_EVENTS), TicketMasterApiResponseDto.class);
+    events = response.getEmbedded().getEvents();
+    duplicatedEvents = new ArrayList<>(events);
+    duplicatedEvents.addAll(events);
+    cachedEvents = events.stream().map(eventMapper::toCachedEvent).toList();
+
+    Random random = new Random(42);
+    favoriteEventIds = new HashSet<>();
+    for (CachedEventDto event : cachedEvents) {
+      if (random.nextInt(4) == 0) {
+        favoriteEventIds.add(event.id());
+      }
+    }
+
+    responseMessage = ResponseMessage.success("/api/v1/events/search", cacheHit());
+
+    ObjectMapper springMapper = Jackson2ObjectMapperBuilder.json().build();
+    responseWriter =
+        springMapper.writerFor(
+            TypeFactory.defaultInstance()
+                .constructParametricType(
+                    ResponseMessage.class,
+                    TypeFactory.defaultInstance()
+                        .constructCollectionType(List.class, EventDto.class)));
+  }
+
+  @Benchmark
+  public List<EventDto> fromTicketMasterEvent() {
+    return events.stream().map(event -> eventMapper.fromTicketMasterEvent(event, false)).toList();
+  }
+
+  @Benchmark
+  public List<TicketMasterApiResponseDto.Embedded.Event> distinctByKey() {
+    return duplicatedEvents.stream()
+        .filter(StreamUtils.distinctByKey(TicketMasterApiResponseDto.Embedded.Event::getId))
+        .toList();
+  }
+
+  // Mirrors EventServiceImpl's withDistancesFrom followed by toEventDtos
+  @Benchmark
+  public List<EventDto> cacheHit() {
+    return cachedEvents.stream()
+        .map(
+            event -> {
+              double distance =
+                  GeoDistanceUtil.distanceMiles(
+                      LATITUDE, LONGITUDE, event.latitude(), event.longitude());
+              return new CachedEventDto(
+                  event.id(),
+                  event.name(),
+                  event.url(),
+                  Math.round(distance * 100) / 100.0,
+                  event.imageUrl(),
+                  event.address(),
+                  event.categories(),
+                  event.latitude(),
+                  event.longitude());
+            })
+        .map(event -> eventMapper.fromCachedEvent(event, favoriteEventIds.contains(event.id())))
+        .toList();
+  }
+
+  @Benchmark
+  public byte[] writeResponseMessage() throws Exception {
+    return responseWriter.writeValueAsBytes(responseMessage);
+  }
+}
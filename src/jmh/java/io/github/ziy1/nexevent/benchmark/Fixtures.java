@@ -0,0 +1,23 @@
+package io.github.ziy1.nexevent.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+// Recorded Ticketmaster payloads shared by the benchmarks
+final class Fixtures {
+  static final String TICKETMASTER_EVENTS = "/fixtures/ticketmaster-events.json";
+
+  private Fixtures() {}
+
+  static byte[] load(String path) {
+    try (InputStream in = Fixtures.class.getResourceAsStream(path)) {
+      if (in == null) {
+        throw new IllegalStateException("Missing fixture: " + path);
+      }
+      return in.readAllBytes();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package io.github.ziy1.nexevent.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.ziy1.nexevent.util.GeoHashUtil;
+
+// Per-point geohash cost: the original range-bisection string encoder against the bit-interleaved
+// long encoder, its base32 form, the bulk array API and neighbor expansion. Run with
+// -prof gc to compare allocation rates.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoHashBenchmark {
+  private static final int POINTS = 1024;
+
+  @Param({"6", "9"})
+  private int precision;
+
+  private final double[] latitudes = new double[POINTS];
+  private final double[] longitudes = new double[POINTS];
+  private final long[] hashes = new long[POINTS];
+  private final long[] neighbors = new long[8];
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    for (int i = 0; i < POINTS; i++) {
+      latitudes[i] = random.nextDouble() * 180 - 90;
+      longitudes[i] = random.nextDouble() * 360 - 180;
+    }
+    GeoHashUtil.encode(latitudes, longitudes, precision, hashes);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINTS)
+  public void legacyEncodeString(Blackhole blackhole) {
+    for (int i = 0; i < POINTS; i++) {
+      blackhole.consume(LegacyGeoHash.encodeGeohash(latitudes[i], longitudes[i], precision));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINTS)
+  public void encodeString(Blackhole blackhole) {
+    for (int i = 0; i < POINTS; i++) {
+      blackhole.consume(GeoHashUtil.encodeGeohash(latitudes[i], longitudes[i], precision));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINTS)
+  public void encodeLong(Blackhole blackhole) {
+    for (int i = 0; i < POINTS; i++) {
+      blackhole.consume(GeoHashUtil.encode(latitudes[i], longitudes[i], precision));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINTS)
+  public long[] encodeBulk() {
+    long[] out = new long[POINTS];
+    GeoHashUtil.encode(latitudes, longitudes, precision, out);
+    return out;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINTS)
+  public void neighbors(Blackhole blackhole) {
+    for (int i = 0; i < POINTS; i++) {
+      GeoHashUtil.neighbors(hashes[i], precision, neighbors);
+      blackhole.consume(neighbors);
+    }
+  }
+
+  // GeoHashUtil.encodeGeohash as it was before the long-based rewrite
+  static class LegacyGeoHash {
+    private static final String BASE_32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private static int divideRangeByValue(double value, double[] range) {
+      double mid = (range[0] + range[1]) / 2;
+      if (value >= mid) {
+        range[0] = mid;
+        return 1;
+      } else {
+        range[1] = mid;
+        return 0;
+      }
+    }
+
+    static String encodeGeohash(double latitude, double longitude, int precision) {
+      double[] latRange = new double[] {-90.0, 90.0};
+      double[] lonRange = new double[] {-180.0, 180.0};
+      boolean isEven = true;
+      int bit = 0;
+      int base32CharIndex = 0;
+      StringBuilder geohash = new StringBuilder();
+
+      while (geohash.length() < precision) {
+        if (isEven) {
+          base32CharIndex = (base32CharIndex << 1) | divideRangeByValue(longitude, lonRange);
+        } else {
+          base32CharIndex = (base32CharIndex << 1) | divideRangeByValue(latitude, latRange);
+        }
+
+        isEven = !isEven;
+
+        if (bit < 4) {
+          bit++;
+        } else {
+          geohash.append(BASE_32.charAt(base32CharIndex));
+          bit = 0;
+          base32CharIndex = 0;
+        }
+      }
+
+      return geohash.toString();
+    }
+  }
+}
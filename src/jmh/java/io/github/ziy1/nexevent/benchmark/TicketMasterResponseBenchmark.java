@@ -0,0 +1,120 @@
+package io.github.ziy1.nexevent.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+
+import reactor.core.publisher.Flux;
+
+import io.github.ziy1.nexevent.client.TicketMasterEventStreamDecoder;
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.dto.TicketMasterApiResponseDto;
+import io.github.ziy1.nexevent.dto.TicketMasterEventPageDto;
+import io.github.ziy1.nexevent.mapper.EventMapper;
+
+// Cost of turning one recorded Ticketmaster page into cached events: binding the full response
+// DTO and its derived accessors, WebClient's Jackson decoder + map as the client used to do over
+// network-sized chunks, and the streaming decoder fed the same chunks or the whole body.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketMasterResponseBenchmark {
+  private static final int CHUNK_SIZE = 8192;
+
+  private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+  private final TicketMasterEventStreamDecoder decoder = new TicketMasterEventStreamDecoder();
+  private final EventMapper eventMapper = new EventMapper();
+
+  private final ResolvableType responseType =
+      ResolvableType.forClass(TicketMasterApiResponseDto.class);
+
+  private ObjectReader responseReader;
+  private Jackson2JsonDecoder jsonDecoder;
+  private byte[] payload;
+  private List<byte[]> chunks;
+  private TicketMasterApiResponseDto response;
+
+  @Setup
+  public void setUp() throws Exception {
+    ObjectMapper mapper =
+        new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    responseReader = mapper.readerFor(TicketMasterApiResponseDto.class);
+    jsonDecoder = new Jackson2JsonDecoder(mapper);
+    payload = Fixtures.load(Fixtures.TICKETMASTER_EVENTS);
+    response = responseReader.readValue(payload);
+
+    chunks = new ArrayList<>();
+    for (int offset = 0; offset < payload.length; offset += CHUNK_SIZE) {
+      chunks.add(
+          Arrays.copyOfRange(payload, offset, Math.min(payload.length, offset + CHUNK_SIZE)));
+    }
+  }
+
+  @Benchmark
+  public TicketMasterApiResponseDto bindResponse() throws Exception {
+    return responseReader.readValue(payload);
+  }
+
+  @Benchmark
+  public void accessors(Blackhole blackhole) {
+    for (TicketMasterApiResponseDto.Embedded.Event event : response.getEmbedded().getEvents()) {
+      blackhole.consume(event.getImageUrl());
+      blackhole.consume(event.getCategories());
+      blackhole.consume(event.getAddress());
+      blackhole.consume(event.getLatitude());
+      blackhole.consume(event.getLongitude());
+    }
+  }
+
+  @Benchmark
+  public List<CachedEventDto> bindAndMap() throws Exception {
+    TicketMasterApiResponseDto bound = responseReader.readValue(payload);
+    return bound.getEmbedded().getEvents().stream().map(eventMapper::toCachedEvent).toList();
+  }
+
+  @Benchmark
+  public List<CachedEventDto> webClientDecodeAndMap() {
+    TicketMasterApiResponseDto decoded =
+        (TicketMasterApiResponseDto)
+            jsonDecoder.decodeToMono(chunkedBody(), responseType, null, null).block();
+    return decoded.getEmbedded().getEvents().stream().map(eventMapper::toCachedEvent).toList();
+  }
+
+  @Benchmark
+  public TicketMasterEventPageDto streamDecode() {
+    return decoder.decode(Flux.just(bufferFactory.wrap(payload))).block();
+  }
+
+  @Benchmark
+  public TicketMasterEventPageDto streamDecodeChunked() {
+    return decoder.decode(chunkedBody()).block();
+  }
+
+  private Flux<DataBuffer> chunkedBody() {
+    return Flux.fromIterable(chunks).map(bufferFactory::wrap);
+  }
+}
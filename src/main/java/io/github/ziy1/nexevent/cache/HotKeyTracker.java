@@ -0,0 +1,158 @@
+package io.github.ziy1.nexevent.cache;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+// Exponentially decaying request counts per event search cache key. The hottest keys are also
+// kept in a Redis sorted set shared by all nodes, so a restarted node knows what to warm up.
+@Slf4j
+@Component
+public class HotKeyTracker {
+  private static final String HOT_SET_KEY = TicketMasterEventCache.KEY_PREFIX + "hot";
+  private static final String MEMBER_SEPARATOR = "|";
+
+  private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+  private final ReactiveStringRedisTemplate stringRedisTemplate;
+
+  @Value("${cache.prefetch.max-tracked-keys:10000}")
+  private int maxTrackedKeys;
+
+  // Applied to every count on each decay, i.e. per prefetch interval
+  @Value("${cache.prefetch.decay:0.5}")
+  private double decay;
+
+  @Value("${cache.prefetch.hot-set-size:200}")
+  private int hotSetSize;
+
+  @Value("${cache.prefetch.hot-set-ttl:86400}")
+  private long hotSetTtl;
+
+  public HotKeyTracker(ReactiveStringRedisTemplate stringRedisTemplate) {
+    this.stringRedisTemplate = stringRedisTemplate;
+  }
+
+  // Identifies a cached search: the cache key's geohash cell and the resolved keyword
+  public record HotKey(String cell, String keyword) {}
+
+  public void record(HotKey key) {
+    String member = toMember(key);
+    Counter counter = counters.get(member);
+    if (counter == null) {
+      if (counters.size() >= maxTrackedKeys) {
+        // Full until the next decay drops cold keys
+        return;
+      }
+      counter = counters.computeIfAbsent(member, k -> new Counter(key, 0));
+    }
+    counter.hits.increment();
+  }
+
+  // Folds the hits since the last call into the decayed scores and forgets keys that went cold
+  public void decay() {
+    counters
+        .values()
+        .removeIf(
+            counter -> {
+              counter.score = counter.score * decay + counter.hits.sumThenReset();
+              return counter.score < 0.5;
+            });
+  }
+
+  public List<HotKey> top(int limit) {
+    return counters.values().stream()
+        .sorted(Comparator.comparingDouble((Counter counter) -> counter.score).reversed())
+        .limit(limit)
+        .map(counter -> counter.key)
+        .toList();
+  }
+
+  // Merges this node's hottest keys into the shared hot set and trims it
+  public Mono<Void> saveHotSet() {
+    List<ZSetOperations.TypedTuple<String>> tuples =
+        counters.values().stream()
+            .sorted(Comparator.comparingDouble((Counter counter) -> counter.score).reversed())
+            .limit(hotSetSize)
+            .<ZSetOperations.TypedTuple<String>>map(
+                counter -> new DefaultTypedTuple<>(toMember(counter.key), counter.score))
+            .toList();
+    if (tuples.isEmpty()) {
+      return Mono.empty();
+    }
+
+    return stringRedisTemplate
+        .opsForZSet()
+        .addAll(HOT_SET_KEY, tuples)
+        // Ranks are ascending by score, so this drops all but the top hotSetSize members
+        .then(
+            stringRedisTemplate
+                .opsForZSet()
+                .removeRange(HOT_SET_KEY, Range.closed(0L, (long) -hotSetSize - 1)))
+        .then(stringRedisTemplate.expire(HOT_SET_KEY, Duration.ofSeconds(hotSetTtl)))
+        .onErrorResume(
+            e -> {
+              log.warn("Failed to save hot key set: {}", e.getMessage());
+              return Mono.empty();
+            })
+        .then();
+  }
+
+  // Seeds the counters from the shared hot set, returning how many keys were loaded
+  public Mono<Integer> loadHotSet() {
+    return stringRedisTemplate
+        .opsForZSet()
+        .reverseRangeWithScores(HOT_SET_KEY, Range.closed(0L, (long) hotSetSize - 1))
+        .filter(tuple -> tuple.getValue() != null && tuple.getScore() != null)
+        .doOnNext(
+            tuple -> {
+              HotKey key = fromMember(tuple.getValue());
+              if (key != null) {
+                counters.putIfAbsent(tuple.getValue(), new Counter(key, tuple.getScore()));
+              }
+            })
+        .count()
+        .map(Long::intValue)
+        .onErrorResume(
+            e -> {
+              log.warn("Failed to load hot key set: {}", e.getMessage());
+              return Mono.just(0);
+            });
+  }
+
+  // The keyword goes last since it may itself contain the separator
+  private static String toMember(HotKey key) {
+    return key.cell() + MEMBER_SEPARATOR + key.keyword();
+  }
+
+  private static HotKey fromMember(String member) {
+    int separator = member.indexOf(MEMBER_SEPARATOR);
+    return separator > 0
+        ? new HotKey(member.substring(0, separator), member.substring(separator + 1))
+        : null;
+  }
+
+  private static class Counter {
+    private final HotKey key;
+    private final LongAdder hits = new LongAdder();
+    private volatile double score;
+
+    Counter(HotKey key, double score) {
+      this.key = key;
+      this.score = score;
+    }
+  }
+}
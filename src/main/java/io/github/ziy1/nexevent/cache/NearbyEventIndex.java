@@ -0,0 +1,228 @@
+package io.github.ziy1.nexevent.cache;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.dto.CachedEventsDto;
+import io.github.ziy1.nexevent.util.GeoDistanceUtil;
+import io.github.ziy1.nexevent.util.GeoHashUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// In-memory grid of events fetched by this node, per keyword, bucketed by geohash cell. A nearby
+// search is answered locally, sorted by exact distance, when a recent fetch with the same keyword
+// was made close enough to the caller; anywhere else still goes to Ticketmaster.
+@Component
+public class NearbyEventIndex {
+  // ~39km x 19.5km cells at the equator, used for both event buckets and fetch coverage
+  private static final int INDEX_PRECISION = 4;
+  // Fetch points remembered per cell, the oldest are dropped first
+  private static final int MAX_COVERAGE_PER_CELL = 16;
+
+  private final Cache<String, KeywordIndex> keywordIndexes;
+  private final long windowMillis;
+  private final double coverageMiles;
+
+  private final Counter hits;
+  private final Counter misses;
+
+  public NearbyEventIndex(
+      MeterRegistry meterRegistry,
+      @Value("${events.index.window:3600}") long windowSeconds,
+      @Value("${events.index.coverage-miles:5}") double coverageMiles,
+      @Value("${events.index.max-keywords:512}") long maxKeywords) {
+    this.windowMillis = Duration.ofSeconds(windowSeconds).toMillis();
+    this.coverageMiles = coverageMiles;
+    this.keywordIndexes =
+        Caffeine.newBuilder()
+            .maximumSize(maxKeywords)
+            .expireAfterAccess(Duration.ofSeconds(windowSeconds))
+            .build();
+
+    this.hits = lookupCounter(meterRegistry, "hit");
+    this.misses = lookupCounter(meterRegistry, "miss");
+  }
+
+  private static Counter lookupCounter(MeterRegistry registry, String result) {
+    return Counter.builder("events.index.lookups").tag("result", result).register(registry);
+  }
+
+  // Records a fetch made at the given point; events without venue coordinates are not indexed
+  public void add(String keyword, double latitude, double longitude, CachedEventsDto fetched) {
+    KeywordIndex index = keywordIndexes.get(keyword, k -> new KeywordIndex());
+    long now = System.currentTimeMillis();
+
+    for (CachedEventDto event : fetched.events()) {
+      if (event.latitude() == null || event.longitude() == null) {
+        continue;
+      }
+      IndexedEvent indexed = new IndexedEvent(event, now);
+      // compute() so a concurrent sweep cannot drop the bucket between lookup and put
+      index.events.compute(
+          GeoHashUtil.encode(event.latitude(), event.longitude(), INDEX_PRECISION),
+          (cell, bucket) -> {
+            if (bucket == null) {
+              bucket = new ConcurrentHashMap<>();
+            }
+            bucket.put(event.id(), indexed);
+            return bucket;
+          });
+    }
+
+    index.coverage.compute(
+        GeoHashUtil.encode(latitude, longitude, INDEX_PRECISION),
+        (cell, coverage) -> {
+          if (coverage == null) {
+            coverage = new ArrayDeque<>();
+          }
+          synchronized (coverage) {
+            if (coverage.size() >= MAX_COVERAGE_PER_CELL) {
+              coverage.removeFirst();
+            }
+            coverage.addLast(new Coverage(latitude, longitude, now));
+          }
+          return coverage;
+        });
+  }
+
+  // Drops expired events and fetches from every cell, and cells left empty. Lookups already skip
+  // them, so this only bounds memory, e.g. for a hot keyword fetched across ever new cells.
+  @Scheduled(
+      fixedDelayString = "${events.index.sweep-interval-ms:300000}",
+      initialDelayString = "${events.index.sweep-interval-ms:300000}")
+  public void sweep() {
+    long now = System.currentTimeMillis();
+    for (KeywordIndex index : keywordIndexes.asMap().values()) {
+      for (Long cell : index.events.keySet()) {
+        index.events.computeIfPresent(
+            cell,
+            (c, bucket) -> {
+              bucket.values().removeIf(indexed -> isExpired(indexed.indexedAt, now));
+              return bucket.isEmpty() ? null : bucket;
+            });
+      }
+      for (Long cell : index.coverage.keySet()) {
+        index.coverage.computeIfPresent(
+            cell,
+            (c, coverage) -> {
+              synchronized (coverage) {
+                coverage.removeIf(fetch -> isExpired(fetch.fetchedAt, now));
+                return coverage.isEmpty() ? null : coverage;
+              }
+            });
+      }
+    }
+    keywordIndexes.cleanUp();
+  }
+
+  // Indexed events within radiusMiles closest first, or empty when no recent fetch covers the
+  // point
+  public Optional<List<CachedEventDto>> findNearby(
+      String keyword, double latitude, double longitude, double radiusMiles, int limit) {
+    KeywordIndex index = keywordIndexes.getIfPresent(keyword);
+    long now = System.currentTimeMillis();
+    if (index == null || !isCovered(index, latitude, longitude, now)) {
+      misses.increment();
+      return Optional.empty();
+    }
+
+    List<NearbyEvent> nearby = new ArrayList<>();
+    for (long cell : cellsWithin(latitude, longitude, radiusMiles)) {
+      Map<String, IndexedEvent> bucket = index.events.get(cell);
+      if (bucket == null) {
+        continue;
+      }
+      for (IndexedEvent indexed : bucket.values()) {
+        if (isExpired(indexed.indexedAt, now)) {
+          continue;
+        }
+        double distance =
+            GeoDistanceUtil.distanceMiles(
+                latitude, longitude, indexed.event.latitude(), indexed.event.longitude());
+        if (distance <= radiusMiles) {
+          nearby.add(new NearbyEvent(indexed.event, distance));
+        }
+      }
+    }
+
+    hits.increment();
+    return Optional.of(
+        nearby.stream()
+            .sorted(Comparator.comparingDouble(NearbyEvent::distance))
+            .limit(limit)
+            .map(NearbyEvent::event)
+            .toList());
+  }
+
+  private boolean isCovered(KeywordIndex index, double latitude, double longitude, long now) {
+    long center = GeoHashUtil.encode(latitude, longitude, INDEX_PRECISION);
+    long[] cells = new long[9];
+    GeoHashUtil.neighbors(center, INDEX_PRECISION, cells);
+    cells[8] = center;
+
+    for (long cell : cells) {
+      Deque<Coverage> coverage = index.coverage.get(cell);
+      if (coverage == null) {
+        continue;
+      }
+      synchronized (coverage) {
+        for (Coverage fetch : coverage) {
+          if (!isExpired(fetch.fetchedAt, now)
+              && GeoDistanceUtil.distanceMiles(latitude, longitude, fetch.latitude, fetch.longitude)
+                  <= coverageMiles) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  // Grid cells overlapping the bounding box of the search circle
+  private static Set<Long> cellsWithin(double latitude, double longitude, double radiusMiles) {
+    double radiusLatDegrees = radiusMiles / GeoDistanceUtil.MILES_PER_DEGREE_LATITUDE;
+    double farthestLatitude = Math.min(89.0, Math.abs(latitude) + radiusLatDegrees);
+    double radiusLonDegrees = radiusLatDegrees / Math.cos(Math.toRadians(farthestLatitude));
+
+    int latSteps = (int) Math.ceil(radiusLatDegrees / GeoHashUtil.latitudeSpan(INDEX_PRECISION));
+    int lonSteps =
+        (int)
+            Math.min(
+                Math.ceil(radiusLonDegrees / GeoHashUtil.longitudeSpan(INDEX_PRECISION)),
+                180.0 / GeoHashUtil.longitudeSpan(INDEX_PRECISION));
+
+    long center = GeoHashUtil.encode(latitude, longitude, INDEX_PRECISION);
+    Set<Long> cells = new HashSet<>();
+    for (int latStep = -latSteps; latStep <= latSteps; latStep++) {
+      for (int lonStep = -lonSteps; lonStep <= lonSteps; lonStep++) {
+        cells.add(GeoHashUtil.neighbor(center, INDEX_PRECISION, latStep, lonStep));
+      }
+    }
+    return cells;
+  }
+
+  private boolean isExpired(long timestamp, long now) {
+    return now - timestamp > windowMillis;
+  }
+
+  private static class KeywordIndex {
+    private final Map<Long, Map<String, IndexedEvent>> events = new ConcurrentHashMap<>();
+    private final Map<Long, Deque<Coverage>> coverage = new ConcurrentHashMap<>();
+  }
+
+  private record IndexedEvent(CachedEventDto event, long indexedAt) {}
+
+  private record NearbyEvent(CachedEventDto event, double distance) {}
+
+  private record Coverage(double latitude, double longitude, long fetchedAt) {}
+}
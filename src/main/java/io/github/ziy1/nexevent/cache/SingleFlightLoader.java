@@ -0,0 +1,127 @@
+package io.github.ziy1.nexevent.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Coalesces concurrent loads of the same key: one subscriber per JVM runs the loader and the rest
+// share its result. Across nodes, a short Redis lease lets one node fetch while the others poll
+// the cache for the value it writes.
+@Slf4j
+@Component
+public class SingleFlightLoader {
+  private static final String LEASE_PREFIX = "lock:";
+  private static final RedisScript<Long> RELEASE_SCRIPT =
+      new DefaultRedisScript<>(
+          "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) "
+              + "else return 0 end",
+          Long.class);
+
+  private final ConcurrentMap<String, CompletableFuture<Object>> inFlight =
+      new ConcurrentHashMap<>();
+  private final ReactiveStringRedisTemplate stringRedisTemplate;
+
+  @Value("${cache.single-flight.lease-ms:10000}")
+  private long leaseMs;
+
+  @Value("${cache.single-flight.poll-interval-ms:100}")
+  private long pollIntervalMs;
+
+  @Value("${cache.single-flight.load-timeout-ms:30000}")
+  private long loadTimeoutMs;
+
+  public SingleFlightLoader(ReactiveStringRedisTemplate stringRedisTemplate) {
+    this.stringRedisTemplate = stringRedisTemplate;
+  }
+
+  // cachedValue is re-subscribed while another node holds the lease; loader runs at most once per
+  // key per JVM at a time. Both must be lazy.
+  //
+  // The shared load runs detached from whichever caller started it, so a caller cancelling or
+  // timing out only stops its own wait; everyone else still gets the result. Callers bound their
+  // wait with their own timeouts, the load itself is bounded by load-timeout-ms.
+  @SuppressWarnings("unchecked")
+  public <T> Mono<T> load(String key, Mono<T> cachedValue, Mono<T> loader) {
+    return Mono.defer(
+        () -> {
+          CompletableFuture<Object> call = new CompletableFuture<>();
+          CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+          if (existing == null) {
+            existing = call;
+            // Registered before subscribing, in case the load completes synchronously
+            call.whenComplete((value, e) -> inFlight.remove(key, call));
+            loadWithLease(key, cachedValue, loader)
+                .timeout(Duration.ofMillis(loadTimeoutMs))
+                .subscribe(call::complete, call::completeExceptionally, () -> call.complete(null));
+          }
+
+          // Empty when the load completed empty
+          return (Mono<T>) Mono.fromFuture(existing, true);
+        });
+  }
+
+  private <T> Mono<T> loadWithLease(String key, Mono<T> cachedValue, Mono<T> loader) {
+    String leaseKey = LEASE_PREFIX + key;
+    String token = UUID.randomUUID().toString();
+
+    return acquireLease(leaseKey, token)
+        .flatMap(
+            acquired -> {
+              if (!acquired) {
+                // Lease holder is slow or gone if nothing shows up, fetch ourselves rather than
+                // fail the request
+                return awaitOtherNode(cachedValue).switchIfEmpty(loader);
+              }
+
+              // Another node may have filled the cache between our miss and the lease
+              return cachedValue
+                  .switchIfEmpty(loader)
+                  .doFinally(signal -> releaseLease(leaseKey, token).subscribe());
+            });
+  }
+
+  private Mono<Boolean> acquireLease(String leaseKey, String token) {
+    return stringRedisTemplate
+        .opsForValue()
+        .setIfAbsent(leaseKey, token, Duration.ofMillis(leaseMs))
+        .defaultIfEmpty(false)
+        .onErrorResume(
+            e -> {
+              log.warn("Failed to acquire lease {}: {}", leaseKey, e.getMessage());
+              return Mono.just(true);
+            });
+  }
+
+  private Mono<Long> releaseLease(String leaseKey, String token) {
+    return stringRedisTemplate
+        .execute(RELEASE_SCRIPT, List.of(leaseKey), List.of(token))
+        .next()
+        .onErrorResume(
+            e -> {
+              // The lease expires on its own
+              log.warn("Failed to release lease {}: {}", leaseKey, e.getMessage());
+              return Mono.empty();
+            });
+  }
+
+  private <T> Mono<T> awaitOtherNode(Mono<T> cachedValue) {
+    return Flux.interval(Duration.ofMillis(pollIntervalMs))
+        .take(Duration.ofMillis(leaseMs))
+        .concatMap(tick -> cachedValue)
+        .next();
+  }
+}
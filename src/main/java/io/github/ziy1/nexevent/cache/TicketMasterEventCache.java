@@ -0,0 +1,179 @@
+package io.github.ziy1.nexevent.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+import io.github.ziy1.nexevent.dto.CachedEventsDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Two-tier cache for Ticketmaster results: a bounded in-process near cache in front of Redis.
+// Writes and invalidations are broadcast over Redis pub/sub so other nodes drop their copy.
+@Slf4j
+@Component
+public class TicketMasterEventCache implements MessageListener {
+  // Bump the version whenever CachedEventsDto changes shape, so old entries are never read back
+  public static final String KEY_PREFIX = "ticketmaster:events:v2:";
+  private static final String INVALIDATION_CHANNEL = KEY_PREFIX + "invalidation";
+  private static final String MESSAGE_SEPARATOR = "|";
+
+  private final ReactiveRedisTemplate<String, CachedEventsDto> redisTemplate;
+  private final ReactiveStringRedisTemplate stringRedisTemplate;
+  private final Cache<String, CachedEventsDto> nearCache;
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private final Counter redisHits;
+  private final Counter redisMisses;
+  private final Counter invalidationsReceived;
+  private final Timer redisHitTimer;
+  private final Timer redisMissTimer;
+
+  public TicketMasterEventCache(
+      ReactiveRedisTemplate<String, CachedEventsDto> redisTemplate,
+      ReactiveStringRedisTemplate stringRedisTemplate,
+      RedisMessageListenerContainer listenerContainer,
+      MeterRegistry meterRegistry,
+      @Value("${cache.near.max-size:256}") long nearCacheMaxSize,
+      @Value("${cache.near.ttl:60}") long nearCacheTtl) {
+    this.redisTemplate = redisTemplate;
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.nearCache =
+        Caffeine.newBuilder()
+            .maximumSize(nearCacheMaxSize)
+            .expireAfterWrite(Duration.ofSeconds(nearCacheTtl))
+            .recordStats()
+            .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "ticketmaster.events.near");
+    this.redisHits = tierCounter(meterRegistry, "redis", "hit");
+    this.redisMisses = tierCounter(meterRegistry, "redis", "miss");
+    this.redisHitTimer = lookupTimer(meterRegistry, "hit");
+    this.redisMissTimer = lookupTimer(meterRegistry, "miss");
+    this.invalidationsReceived =
+        Counter.builder("ticketmaster.events.cache.invalidations")
+            .description("Near cache invalidations received from other nodes")
+            .register(meterRegistry);
+
+    listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+  }
+
+  private static Counter tierCounter(MeterRegistry registry, String tier, String result) {
+    return Counter.builder("ticketmaster.events.cache.requests")
+        .tag("tier", tier)
+        .tag("result", result)
+        .register(registry);
+  }
+
+  // Redis round trip including decode; near cache hits are covered by the Caffeine metrics
+  private static Timer lookupTimer(MeterRegistry registry, String result) {
+    return Timer.builder("ticketmaster.events.cache.lookup")
+        .tag("tier", "redis")
+        .tag("result", result)
+        .register(registry);
+  }
+
+  // Lazy: every subscription re-checks both tiers
+  public Mono<CachedEventsDto> get(String key) {
+    return Mono.defer(
+        () -> {
+          CachedEventsDto nearValue = nearCache.getIfPresent(key);
+          if (nearValue != null) {
+            return Mono.just(nearValue);
+          }
+
+          long start = System.nanoTime();
+          return getFromRedis(key)
+              .doOnNext(
+                  redisValue -> {
+                    redisHits.increment();
+                    redisHitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    nearCache.put(key, redisValue);
+                  })
+              .switchIfEmpty(
+                  Mono.fromRunnable(
+                      () -> {
+                        redisMisses.increment();
+                        redisMissTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                      }));
+        });
+  }
+
+  public Mono<Void> put(String key, CachedEventsDto value, long ttlSeconds) {
+    return redisTemplate
+        .opsForValue()
+        .set(key, value, Duration.ofSeconds(ttlSeconds))
+        .doOnSuccess(stored -> nearCache.put(key, value))
+        .then(publishInvalidation(key));
+  }
+
+  public Mono<Void> invalidate(String key) {
+    return redisTemplate
+        .delete(key)
+        .doOnSuccess(deleted -> nearCache.invalidate(key))
+        .then(publishInvalidation(key));
+  }
+
+  private Mono<CachedEventsDto> getFromRedis(String key) {
+    return redisTemplate
+        .opsForValue()
+        .get(key)
+        .onErrorResume(
+            SerializationException.class,
+            e -> {
+              // Entry written in another format (e.g. before a format switch), refetch it
+              log.warn("Discarding unreadable cache entry {}: {}", key, e.getMessage());
+              return Mono.empty();
+            })
+        // Decoding is lenient, so an entry of some other shape can come back without events
+        .filter(value -> value.events() != null);
+  }
+
+  private Mono<Void> publishInvalidation(String key) {
+    return stringRedisTemplate
+        .convertAndSend(INVALIDATION_CHANNEL, nodeId + MESSAGE_SEPARATOR + key)
+        .onErrorResume(
+            e -> {
+              // Other nodes fall back to the near cache TTL
+              log.warn("Failed to publish cache invalidation for {}: {}", key, e.getMessage());
+              return Mono.empty();
+            })
+        .then();
+  }
+
+  @Override
+  public void onMessage(@NonNull Message message, @Nullable byte[] pattern) {
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+
+    int separator = body.indexOf(MESSAGE_SEPARATOR);
+    if (separator < 0 || body.startsWith(nodeId + MESSAGE_SEPARATOR)) {
+      return;
+    }
+
+    nearCache.invalidate(body.substring(separator + 1));
+    invalidationsReceived.increment();
+  }
+}
@@ -0,0 +1,146 @@
+package io.github.ziy1.nexevent.client;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+// Count-based circuit breaker for Monos. Opens when the failure rate over the last windowSize
+// calls reaches the threshold, fails fast while open, then lets a few probe calls through
+// (half-open) and closes once they all succeed.
+public class CircuitBreaker {
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  public static class CallNotPermittedException extends RuntimeException {
+    CallNotPermittedException() {
+      super("Circuit breaker is open");
+    }
+  }
+
+  private final int windowSize;
+  private final int minimumCalls;
+  private final double failureRateThreshold;
+  private final long openDurationMillis;
+  private final int halfOpenProbes;
+  private final Predicate<Throwable> isFailure;
+
+  // Guarded by this
+  private State state = State.CLOSED;
+  private final boolean[] failed;
+  private int index;
+  private int calls;
+  private int failures;
+  private long openedAt;
+  private int probesInFlight;
+  private int probeSuccesses;
+
+  public CircuitBreaker(
+      int windowSize,
+      int minimumCalls,
+      double failureRateThreshold,
+      Duration openDuration,
+      int halfOpenProbes,
+      Predicate<Throwable> isFailure) {
+    this.windowSize = windowSize;
+    this.minimumCalls = minimumCalls;
+    this.failureRateThreshold = failureRateThreshold;
+    this.openDurationMillis = openDuration.toMillis();
+    this.halfOpenProbes = halfOpenProbes;
+    this.isFailure = isFailure;
+    this.failed = new boolean[windowSize];
+  }
+
+  // Fails with CallNotPermittedException without subscribing to call while open
+  public <T> Mono<T> run(Mono<T> call) {
+    return Mono.defer(
+        () -> {
+          State acquiredIn = tryAcquire();
+          if (acquiredIn == null) {
+            return Mono.error(new CallNotPermittedException());
+          }
+          return call.doOnSuccess(value -> onResult(acquiredIn, true))
+              .doOnError(e -> onResult(acquiredIn, !isFailure.test(e)))
+              .doFinally(
+                  signal -> {
+                    if (signal == SignalType.CANCEL) {
+                      onCancel(acquiredIn);
+                    }
+                  });
+        });
+  }
+
+  public synchronized State getState() {
+    return state;
+  }
+
+  // The state the call was admitted in, or null when it is not permitted
+  private synchronized State tryAcquire() {
+    if (state == State.OPEN) {
+      if (System.currentTimeMillis() - openedAt < openDurationMillis) {
+        return null;
+      }
+      state = State.HALF_OPEN;
+      probesInFlight = 0;
+      probeSuccesses = 0;
+    }
+    if (state == State.HALF_OPEN) {
+      if (probesInFlight >= halfOpenProbes) {
+        return null;
+      }
+      probesInFlight++;
+    }
+    return state;
+  }
+
+  private synchronized void onResult(State acquiredIn, boolean success) {
+    if (acquiredIn == State.HALF_OPEN) {
+      if (state != State.HALF_OPEN) {
+        return;
+      }
+      probesInFlight--;
+      if (!success) {
+        transitionTo(State.OPEN);
+      } else if (++probeSuccesses >= halfOpenProbes) {
+        transitionTo(State.CLOSED);
+      }
+      return;
+    }
+
+    // Results of calls admitted before the circuit last opened are ignored
+    if (state != State.CLOSED) {
+      return;
+    }
+    if (calls == windowSize && failed[index]) {
+      failures--;
+    }
+    failed[index] = !success;
+    if (!success) {
+      failures++;
+    }
+    index = (index + 1) % windowSize;
+    calls = Math.min(calls + 1, windowSize);
+
+    if (calls >= minimumCalls && failures >= failureRateThreshold * calls) {
+      transitionTo(State.OPEN);
+    }
+  }
+
+  private synchronized void onCancel(State acquiredIn) {
+    if (acquiredIn == State.HALF_OPEN && state == State.HALF_OPEN) {
+      probesInFlight--;
+    }
+  }
+
+  private void transitionTo(State newState) {
+    state = newState;
+    openedAt = System.currentTimeMillis();
+    calls = 0;
+    failures = 0;
+    index = 0;
+  }
+}
@@ -0,0 +1,198 @@
+package io.github.ziy1.nexevent.client;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// Non-blocking semaphore for Monos: at most `limit` calls are subscribed at once, the rest wait
+// in FIFO order without holding a thread, up to the queue timeout.
+//
+// The limit adapts to latency, gradient style: while response times stay near their long-term
+// average it grows by about sqrt(limit), as they rise it shrinks in proportion, and calls failing
+// with an overload error cut it multiplicatively.
+public class ConcurrencyLimiter {
+  // Response time increase tolerated before the limit starts shrinking
+  private static final double RTT_TOLERANCE = 1.5;
+  private static final double RTT_SMOOTHING = 0.05;
+  private static final double LIMIT_SMOOTHING = 0.2;
+  private static final double OVERLOAD_BACKOFF = 0.9;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+  private final int minLimit;
+  private final int maxLimit;
+  private final Duration queueTimeout;
+  private final Predicate<Throwable> isOverload;
+  private volatile int limit;
+
+  // Guarded by this
+  private double estimatedLimit;
+  private double longRttNanos;
+
+  public ConcurrencyLimiter(
+      int minLimit, int maxLimit, Duration queueTimeout, Predicate<Throwable> isOverload) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.queueTimeout = queueTimeout;
+    this.isOverload = isOverload;
+    this.estimatedLimit = maxLimit;
+    this.limit = maxLimit;
+  }
+
+  // Fails with RejectedExecutionException if no permit frees up within the queue timeout
+  public <T> Mono<T> run(Mono<T> call) {
+    return Mono.create(
+        sink -> {
+          Waiter waiter =
+              new Waiter(
+                  () -> {
+                    long start = System.nanoTime();
+                    return call.doOnSuccess(value -> onSample(System.nanoTime() - start))
+                        .doOnError(
+                            e -> {
+                              if (isOverload.test(e)) {
+                                onOverload();
+                              }
+                            })
+                        .doFinally(signal -> release())
+                        .subscribe(sink::success, sink::error, sink::success);
+                  });
+          sink.onCancel(
+              () -> {
+                waiter.cancel();
+                waiters.remove(waiter);
+              });
+
+          if (tryAcquire()) {
+            waiter.start();
+            return;
+          }
+
+          waiters.add(waiter);
+          Disposable timeout =
+              Schedulers.parallel()
+                  .schedule(
+                      () -> {
+                        if (waiter.expire()) {
+                          waiters.remove(waiter);
+                          sink.error(
+                              new RejectedExecutionException(
+                                  "Timed out waiting for a concurrency permit"));
+                        }
+                      },
+                      queueTimeout.toMillis(),
+                      TimeUnit.MILLISECONDS);
+          sink.onDispose(timeout);
+          // A permit may have been released between the failed acquire and the enqueue
+          drain();
+        });
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public int getQueued() {
+    return waiters.size();
+  }
+
+  private void onSample(long rttNanos) {
+    synchronized (this) {
+      longRttNanos =
+          longRttNanos == 0
+              ? rttNanos
+              : longRttNanos * (1 - RTT_SMOOTHING) + rttNanos * RTT_SMOOTHING;
+
+      double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / rttNanos));
+      double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+      // Only grow when the current limit is actually being used
+      if (newLimit > estimatedLimit && inFlight.get() < estimatedLimit / 2) {
+        return;
+      }
+      updateLimit(estimatedLimit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING);
+    }
+    drain();
+  }
+
+  private synchronized void onOverload() {
+    updateLimit(estimatedLimit * OVERLOAD_BACKOFF);
+  }
+
+  private void updateLimit(double newLimit) {
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    limit = (int) estimatedLimit;
+  }
+
+  private boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void release() {
+    inFlight.decrementAndGet();
+    drain();
+  }
+
+  private void drain() {
+    while (!waiters.isEmpty() && tryAcquire()) {
+      Waiter waiter = waiters.poll();
+      if (waiter == null || !waiter.start()) {
+        // Nobody to hand the permit to
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+
+  private static class Waiter {
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final Supplier<Disposable> subscription;
+    private volatile Disposable disposable;
+
+    Waiter(Supplier<Disposable> subscription) {
+      this.subscription = subscription;
+    }
+
+    boolean start() {
+      if (!claimed.compareAndSet(false, true)) {
+        return false;
+      }
+      disposable = subscription.get();
+      return true;
+    }
+
+    // Claims a waiter that never got a permit
+    boolean expire() {
+      return claimed.compareAndSet(false, true);
+    }
+
+    void cancel() {
+      if (!claimed.compareAndSet(false, true)) {
+        Disposable current = disposable;
+        if (current != null) {
+          current.dispose();
+        }
+      }
+    }
+  }
+}
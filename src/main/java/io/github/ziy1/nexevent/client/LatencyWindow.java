@@ -0,0 +1,48 @@
+package io.github.ziy1.nexevent.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+// Latencies of the most recent successful calls, for percentile based hedge delays. The
+// percentile is recomputed every few samples rather than on every read.
+public class LatencyWindow {
+  private static final int RECOMPUTE_EVERY = 32;
+
+  private final long[] samples;
+  private final double percentile;
+  private final int minimumSamples;
+
+  // Guarded by this
+  private int index;
+  private int count;
+  private int sinceRecompute;
+  private Duration cached;
+
+  public LatencyWindow(int size, double percentile, int minimumSamples) {
+    this.samples = new long[size];
+    this.percentile = percentile;
+    this.minimumSamples = minimumSamples;
+  }
+
+  public synchronized void record(long nanos) {
+    samples[index] = nanos;
+    index = (index + 1) % samples.length;
+    count = Math.min(count + 1, samples.length);
+    if (++sinceRecompute >= RECOMPUTE_EVERY || cached == null) {
+      sinceRecompute = 0;
+      cached = count >= minimumSamples ? compute() : null;
+    }
+  }
+
+  // Null until enough samples are in
+  public synchronized Duration getPercentile() {
+    return cached;
+  }
+
+  private Duration compute() {
+    long[] sorted = Arrays.copyOf(samples, count);
+    Arrays.sort(sorted);
+    int rank = (int) Math.ceil(percentile * count) - 1;
+    return Duration.ofNanos(sorted[Math.max(0, rank)]);
+  }
+}
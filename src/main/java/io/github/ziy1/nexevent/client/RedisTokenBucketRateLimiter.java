@@ -0,0 +1,154 @@
+package io.github.ziy1.nexevent.client;
+
+import java.time.Duration;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+import io.github.ziy1.nexevent.exception.TicketMasterThrottledException;
+
+// Token bucket and daily quota for Ticketmaster calls, shared by all nodes through Redis. The
+// scripts take both the time and the quota's UTC day from Redis server time, so node clocks do not
+// matter. If Redis is unreachable calls are let through rather than failed.
+@Slf4j
+@Component
+public class RedisTokenBucketRateLimiter {
+  private static final String BUCKET_KEY = "ratelimit:ticketmaster:bucket";
+  // Followed by the UTC day as days since the epoch
+  private static final String DAILY_KEY_PREFIX = "ratelimit:ticketmaster:day:";
+
+  // Returns 0 when a token was taken, the milliseconds until the next token otherwise, or -1
+  // once the daily quota is used up
+  private static final RedisScript<Long> ACQUIRE_SCRIPT =
+      new DefaultRedisScript<>(
+          """
+          local rate = tonumber(ARGV[1])
+          local capacity = tonumber(ARGV[2])
+          local dailyQuota = tonumber(ARGV[3])
+          local time = redis.call('TIME')
+          local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+          local dailyKey = KEYS[2] .. math.floor(tonumber(time[1]) / 86400)
+          if dailyQuota > 0 and tonumber(redis.call('GET', dailyKey) or '0') >= dailyQuota then
+            return -1
+          end
+          local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+          local tokens = tonumber(bucket[1]) or capacity
+          local ts = tonumber(bucket[2]) or now
+          tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+          local wait = 0
+          if tokens >= 1 then
+            tokens = tokens - 1
+            if dailyQuota > 0 then
+              redis.call('INCR', dailyKey)
+              redis.call('EXPIRE', dailyKey, 172800)
+            end
+          else
+            wait = math.ceil((1 - tokens) * 1000 / rate)
+          end
+          redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+          redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / rate) + 1000)
+          return wait
+          """,
+          Long.class);
+
+  // Puts back a token taken by a call that was never made. A missing bucket is already full.
+  private static final RedisScript<Long> REFUND_SCRIPT =
+      new DefaultRedisScript<>(
+          """
+          local capacity = tonumber(ARGV[1])
+          local dailyQuota = tonumber(ARGV[2])
+          local tokens = tonumber(redis.call('HGET', KEYS[1], 'tokens'))
+          if tokens then
+            redis.call('HSET', KEYS[1], 'tokens', tostring(math.min(capacity, tokens + 1)))
+          end
+          if dailyQuota > 0 then
+            local dailyKey = KEYS[2] .. math.floor(tonumber(redis.call('TIME')[1]) / 86400)
+            if tonumber(redis.call('GET', dailyKey) or '0') > 0 then
+              redis.call('DECR', dailyKey)
+            end
+          end
+          return 0
+          """,
+          Long.class);
+
+  private final ReactiveStringRedisTemplate stringRedisTemplate;
+
+  @Value("${ticketmaster.rate-limit.per-second:5}")
+  private double permitsPerSecond;
+
+  @Value("${ticketmaster.rate-limit.burst:5}")
+  private int burst;
+
+  // 0 disables the daily quota
+  @Value("${ticketmaster.rate-limit.daily-quota:5000}")
+  private long dailyQuota;
+
+  // Longest a call waits for a token before it is rejected
+  @Value("${ticketmaster.rate-limit.max-wait-ms:1000}")
+  private long maxWaitMs;
+
+  public RedisTokenBucketRateLimiter(ReactiveStringRedisTemplate stringRedisTemplate) {
+    this.stringRedisTemplate = stringRedisTemplate;
+  }
+
+  // Completes once a token is taken, or fails with TicketMasterThrottledException
+  public Mono<Void> acquire() {
+    return Mono.defer(() -> acquire(System.currentTimeMillis() + maxWaitMs));
+  }
+
+  private Mono<Void> acquire(long deadline) {
+    return stringRedisTemplate
+        .execute(
+            ACQUIRE_SCRIPT,
+            List.of(BUCKET_KEY, DAILY_KEY_PREFIX),
+            List.of(
+                String.valueOf(permitsPerSecond),
+                String.valueOf(burst),
+                String.valueOf(dailyQuota)))
+        .next()
+        .onErrorResume(
+            e -> {
+              log.warn("Rate limiter unavailable, letting the call through: {}", e.getMessage());
+              return Mono.just(0L);
+            })
+        .flatMap(
+            waitMs -> {
+              if (waitMs == 0) {
+                return Mono.empty();
+              }
+              if (waitMs < 0) {
+                return Mono.error(
+                    new TicketMasterThrottledException("Daily Ticketmaster quota used up"));
+              }
+              if (System.currentTimeMillis() + waitMs > deadline) {
+                return Mono.error(
+                    new TicketMasterThrottledException("Ticketmaster rate limit reached"));
+              }
+              return Mono.delay(Duration.ofMillis(waitMs))
+                  .then(Mono.defer(() -> acquire(deadline)));
+            });
+  }
+
+  // For a token whose call was rejected before reaching Ticketmaster; best effort
+  public Mono<Void> refund() {
+    return stringRedisTemplate
+        .execute(
+            REFUND_SCRIPT,
+            List.of(BUCKET_KEY, DAILY_KEY_PREFIX),
+            List.of(String.valueOf(burst), String.valueOf(dailyQuota)))
+        .then()
+        .onErrorResume(
+            e -> {
+              log.warn("Failed to refund a rate limit token: {}", e.getMessage());
+              return Mono.empty();
+            });
+  }
+}
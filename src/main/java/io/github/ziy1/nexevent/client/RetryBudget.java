@@ -0,0 +1,33 @@
+package io.github.ziy1.nexevent.client;
+
+// Caps retries (and hedges) at a fraction of the call rate: every call deposits `ratio` of a
+// token and every extra attempt takes a whole one, so an outage cannot multiply upstream load.
+public class RetryBudget {
+  private final double ratio;
+  private final double maxTokens;
+
+  // Guarded by this
+  private double tokens;
+
+  public RetryBudget(double ratio, double maxTokens) {
+    this.ratio = ratio;
+    this.maxTokens = maxTokens;
+    this.tokens = maxTokens;
+  }
+
+  public synchronized void onCall() {
+    tokens = Math.min(maxTokens, tokens + ratio);
+  }
+
+  public synchronized double getTokens() {
+    return tokens;
+  }
+
+  public synchronized boolean tryWithdraw() {
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+}
@@ -1,22 +1,50 @@
 package io.github.ziy1.nexevent.client;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.dto.TicketMasterEventPageDto;
+import io.github.ziy1.nexevent.exception.TicketMasterThrottledException;
+import io.github.ziy1.nexevent.exception.TicketMasterUnavailableException;
+import io.github.ziy1.nexevent.util.StreamUtils;
 
-import io.github.ziy1.nexevent.dto.TicketMasterApiResponseDto;
-import io.github.ziy1.nexevent.util.IdNormalizerUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Slf4j
 @Component
 public class TicketMasterApiClient {
+  private static final String SEARCH_QUERY =
+      "?apikey={apikey}&geoPoint={geoPoint}&keyword={keyword}&radius={radius}&size={size}"
+          + "&page={page}";
+
   private final WebClient webClient;
+  private final MeterRegistry meterRegistry;
+  private final TicketMasterEventStreamDecoder eventDecoder = new TicketMasterEventStreamDecoder();
 
   @Value("${ticketmaster.base-url:https://app.ticketmaster.com/discovery/v2/events.json}")
   private String baseUrl;
@@ -30,55 +58,325 @@ public class TicketMasterApiClient {
   @Value("${ticketmaster.default-radius:50}")
   private String radius;
 
-  public TicketMasterApiClient(WebClient webClient) {
+  // Bounds in-flight upstream calls, however many request or virtual threads ask for them
+  private final ConcurrencyLimiter concurrencyLimiter;
+  private final RedisTokenBucketRateLimiter rateLimiter;
+  private final Counter throttledCalls;
+  private final CircuitBreaker circuitBreaker;
+  private final RetryBudget retryBudget;
+  private final LatencyWindow latencyWindow = new LatencyWindow(512, 0.95, 50);
+  private final Counter retries;
+  private final Counter hedges;
+
+  @Value("${ticketmaster.attempt-timeout-ms:3000}")
+  private long attemptTimeoutMs;
+
+  // Including the first attempt
+  @Value("${ticketmaster.retry.max-attempts:2}")
+  private int maxAttempts;
+
+  @Value("${ticketmaster.retry.backoff-ms:100}")
+  private long retryBackoffMs;
+
+  @Value("${ticketmaster.hedge.enabled:false}")
+  private boolean hedgeEnabled;
+
+  private static final int DEEP_PAGING_LIMIT = 1000;
+
+  @Value("${ticketmaster.paging.page-size:50}")
+  private int pageSize;
+
+  @Value("${ticketmaster.paging.max-pages:3}")
+  private int maxPages;
+
+  @Value("${ticketmaster.paging.page-concurrency:2}")
+  private int pageConcurrency;
+
+  @Value("${ticketmaster.paging.max-events:150}")
+  private int maxEvents;
+
+  public TicketMasterApiClient(
+      WebClient webClient,
+      RedisTokenBucketRateLimiter rateLimiter,
+      MeterRegistry meterRegistry,
+      @Value("${ticketmaster.min-concurrent-requests:2}") int minConcurrentRequests,
+      @Value("${ticketmaster.max-concurrent-requests:20}") int maxConcurrentRequests,
+      @Value("${ticketmaster.queue-timeout-ms:2000}") long queueTimeoutMs,
+      @Value("${ticketmaster.circuit-breaker.window-size:20}") int circuitWindowSize,
+      @Value("${ticketmaster.circuit-breaker.failure-rate:0.5}") double circuitFailureRate,
+      @Value("${ticketmaster.circuit-breaker.open-ms:30000}") long circuitOpenMs,
+      @Value("${ticketmaster.circuit-breaker.half-open-probes:2}") int circuitHalfOpenProbes,
+      @Value("${ticketmaster.retry.budget-ratio:0.1}") double retryBudgetRatio) {
     this.webClient = webClient;
+    this.meterRegistry = meterRegistry;
+    this.rateLimiter = rateLimiter;
+    this.concurrencyLimiter =
+        new ConcurrencyLimiter(
+            minConcurrentRequests,
+            maxConcurrentRequests,
+            Duration.ofMillis(queueTimeoutMs),
+            TicketMasterApiClient::isOverload);
+
+    Gauge.builder(
+            "ticketmaster.client.concurrency.limit",
+            concurrencyLimiter,
+            ConcurrencyLimiter::getLimit)
+        .register(meterRegistry);
+    Gauge.builder(
+            "ticketmaster.client.concurrency.in-flight",
+            concurrencyLimiter,
+            ConcurrencyLimiter::getInFlight)
+        .register(meterRegistry);
+    Gauge.builder(
+            "ticketmaster.client.concurrency.queued",
+            concurrencyLimiter,
+            ConcurrencyLimiter::getQueued)
+        .register(meterRegistry);
+    this.throttledCalls =
+        Counter.builder("ticketmaster.client.throttled")
+            .description("Ticketmaster calls rejected by a local limit or answered with 429")
+            .register(meterRegistry);
+
+    this.circuitBreaker =
+        new CircuitBreaker(
+            circuitWindowSize,
+            circuitWindowSize / 2,
+            circuitFailureRate,
+            Duration.ofMillis(circuitOpenMs),
+            circuitHalfOpenProbes,
+            TicketMasterApiClient::isRetryable);
+    this.retryBudget = new RetryBudget(retryBudgetRatio, 10);
+    Gauge.builder(
+            "ticketmaster.client.circuit.state",
+            circuitBreaker,
+            breaker -> breaker.getState().ordinal())
+        .description("0 closed, 1 open, 2 half-open")
+        .register(meterRegistry);
+    Gauge.builder("ticketmaster.client.retry.budget", retryBudget, RetryBudget::getTokens)
+        .description("Retries and hedges currently affordable")
+        .register(meterRegistry);
+    this.retries = Counter.builder("ticketmaster.client.retries").register(meterRegistry);
+    this.hedges = Counter.builder("ticketmaster.client.hedges").register(meterRegistry);
+  }
+
+  private static boolean isOverload(Throwable e) {
+    return e instanceof WebClientResponseException.TooManyRequests
+        || e instanceof WebClientRequestException
+        || e instanceof TimeoutException;
+  }
+
+  // Fails with TicketMasterUnavailableException when Ticketmaster is throttled, the circuit is
+  // open or retries ran out, so callers can fall back to cached data. Other errors (4xx, bad
+  // payloads) are logged and surface as an empty result.
+  public Mono<TicketMasterEventPageDto> searchNearByEventsReactive(String geoHash, String keyword) {
+    return searchPage(geoHash, keyword, 0);
   }
 
-  public TicketMasterApiResponseDto searchNearByEvents(String geoHash, String keyword) {
-    String apiUrl =
-        UriComponentsBuilder.fromHttpUrl(baseUrl)
-            .queryParam("apikey", apiKey)
-            .queryParam("geoPoint", geoHash)
-            .queryParam(
-                "keyword", (keyword != null && !keyword.isEmpty()) ? keyword : defaultKeyword)
-            .queryParam("radius", radius)
-            .toUriString();
-
-    try {
-      return webClient
-          .get()
-          .uri(apiUrl)
-          .retrieve()
-          .bodyToMono(TicketMasterApiResponseDto.class)
-          .doOnError(
-              WebClientResponseException.class, e -> log.error("API error: {}", e.getMessage()))
-          .onErrorResume(
-              e -> {
-                log.error("Error fetching events: {}", e.getMessage());
-                return Mono.empty();
-              })
-          .map(this::normalizeIds)
-          .block();
-    } catch (Exception e) {
-      log.error("Unexpected error: {}", e.getMessage());
-      return null;
+  // Streams up to max-pages pages in order, each holding only events not seen on earlier pages,
+  // until max-events are collected. Pages after the first are fetched page-concurrency at a time
+  // and may be dropped if Ticketmaster becomes unavailable; a failed first page fails the search.
+  public Flux<TicketMasterEventPageDto> searchNearByEventPages(String geoHash, String keyword) {
+    return searchPage(geoHash, keyword, 0)
+        .flatMapMany(
+            firstPage -> {
+              // Ticketmaster only serves results up to the 1000th
+              int pages =
+                  Math.min(
+                      Math.min(firstPage.totalPages(), maxPages), DEEP_PAGING_LIMIT / pageSize);
+              Flux<TicketMasterEventPageDto> laterPages =
+                  Flux.range(1, Math.max(0, pages - 1))
+                      .flatMapSequential(
+                          page ->
+                              searchPage(geoHash, keyword, page)
+                                  .onErrorResume(
+                                      TicketMasterUnavailableException.class,
+                                      e -> {
+                                        log.warn(
+                                            "Skipping page {} of {}: {}",
+                                            page,
+                                            geoHash,
+                                            e.getMessage());
+                                        return Mono.empty();
+                                      }),
+                          pageConcurrency);
+              return Flux.concat(Mono.just(firstPage), laterPages);
+            })
+        .transform(this::mergePages);
+  }
+
+  // Drops events already seen on earlier pages and trims to max-events; pages arrive in order, so
+  // the state needs no synchronization. Reaching the cap cancels the pages still in flight.
+  private Flux<TicketMasterEventPageDto> mergePages(Flux<TicketMasterEventPageDto> pages) {
+    return Flux.defer(
+        () -> {
+          Predicate<CachedEventDto> unseen = StreamUtils.distinctByKey(CachedEventDto::id);
+          AtomicInteger remaining = new AtomicInteger(maxEvents);
+          return pages
+              .map(
+                  page -> {
+                    List<CachedEventDto> events =
+                        page.events().stream().filter(unseen).limit(remaining.get()).toList();
+                    remaining.addAndGet(-events.size());
+                    return new TicketMasterEventPageDto(events, page.totalPages());
+                  })
+              .takeUntil(page -> remaining.get() <= 0);
+        });
+  }
+
+  private Mono<TicketMasterEventPageDto> searchPage(String geoHash, String keyword, int page) {
+    Map<String, Object> uriVariables =
+        Map.of(
+            "apikey", apiKey,
+            "geoPoint", geoHash,
+            "keyword", (keyword != null && !keyword.isEmpty()) ? keyword : defaultKeyword,
+            "radius", radius,
+            "size", pageSize,
+            "page", page);
+
+    return Mono.defer(
+            () -> {
+              // Only the original call deposits into the budget, not its retries
+              retryBudget.onCall();
+              // The filter also runs on the last failure, which must not take a token
+              AtomicInteger failures = new AtomicInteger();
+              return Mono.defer(() -> circuitBreaker.run(hedged(attempt(uriVariables))))
+                  .retryWhen(
+                      Retry.backoff(Math.max(0, maxAttempts - 1), Duration.ofMillis(retryBackoffMs))
+                          .jitter(0.5)
+                          .filter(
+                              e ->
+                                  isRetryable(e)
+                                      && failures.incrementAndGet() < maxAttempts
+                                      && retryBudget.tryWithdraw())
+                          .doBeforeRetry(signal -> retries.increment())
+                          .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+            })
+        .onErrorMap(
+            CircuitBreaker.CallNotPermittedException.class,
+            e -> new TicketMasterUnavailableException("Ticketmaster circuit is open", e))
+        .onErrorMap(
+            TicketMasterApiClient::isRetryable,
+            e -> new TicketMasterUnavailableException("Ticketmaster unavailable", e))
+        .doOnError(TicketMasterThrottledException.class, e -> throttledCalls.increment())
+        .doOnError(
+            WebClientResponseException.class, e -> log.error("API error: {}", e.getMessage()))
+        .onErrorResume(
+            e -> !(e instanceof TicketMasterUnavailableException),
+            e -> {
+              log.error("Error fetching events: {}", e.getMessage());
+              return Mono.empty();
+            });
+  }
+
+  // One rate limited, concurrency limited call with its own timeout
+  private Mono<TicketMasterEventPageDto> attempt(Map<String, Object> uriVariables) {
+    return Mono.defer(
+        () -> {
+          long start = System.nanoTime();
+          return rateLimiter
+              .acquire()
+              .then(
+                  concurrencyLimiter
+                      .run(exchange(uriVariables))
+                      // Never sent, so it should not count against the rate limit or quota
+                      .onErrorResume(
+                          RejectedExecutionException.class,
+                          e -> rateLimiter.refund().then(Mono.error(e))))
+              .doOnSuccess(response -> latencyWindow.record(System.nanoTime() - start))
+              .onErrorMap(
+                  e ->
+                      e instanceof RejectedExecutionException
+                          || e instanceof WebClientResponseException.TooManyRequests,
+                  e -> new TicketMasterThrottledException("Ticketmaster call throttled", e));
+        });
+  }
+
+  // The HTTP call itself, timed by response status and outcome
+  private Mono<TicketMasterEventPageDto> exchange(Map<String, Object> uriVariables) {
+    return Mono.defer(
+        () -> {
+          Timer.Sample sample = Timer.start();
+          AtomicReference<HttpStatusCode> status = new AtomicReference<>();
+          return webClient
+              .get()
+              // Templated so the http.client.requests uri tag carries no api key or search values
+              .uri(baseUrl + SEARCH_QUERY, uriVariables)
+              .retrieve()
+              .toEntityFlux(DataBuffer.class)
+              .flatMap(
+                  response -> {
+                    status.set(response.getStatusCode());
+                    // Decoded as the bytes arrive, straight into the cached projection
+                    return eventDecoder.decode(response.getBody());
+                  })
+              .timeout(Duration.ofMillis(attemptTimeoutMs))
+              .doOnSuccess(page -> sample.stop(requestTimer(status.get(), "success")))
+              .doOnError(
+                  e ->
+                      sample.stop(
+                          requestTimer(
+                              e instanceof WebClientResponseException responseException
+                                  ? responseException.getStatusCode()
+                                  : status.get(),
+                              outcome(e))))
+              // Lost a hedge race or the caller went away
+              .doOnCancel(() -> sample.stop(requestTimer(status.get(), "cancelled")));
+        });
+  }
+
+  private Timer requestTimer(HttpStatusCode status, String outcome) {
+    return Timer.builder("ticketmaster.client.requests")
+        .description("Ticketmaster search calls, per attempt")
+        .tag("status", status != null ? String.valueOf(status.value()) : "none")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  private static String outcome(Throwable e) {
+    if (e instanceof TimeoutException) {
+      return "timeout";
+    }
+    if (e instanceof WebClientResponseException responseException) {
+      return responseException.getStatusCode().is5xxServerError() ? "server_error" : "client_error";
     }
+    if (e instanceof WebClientRequestException) {
+      return "io_error";
+    }
+    if (e instanceof DecodingException) {
+      return "decode_error";
+    }
+    return "error";
   }
 
-  private TicketMasterApiResponseDto normalizeIds(TicketMasterApiResponseDto response) {
-    if (response != null
-        && response.getEmbedded() != null
-        && response.getEmbedded().getEvents() != null) {
-      response
-          .getEmbedded()
-          .getEvents()
-          .forEach(
-              event -> {
-                if (event != null) {
-                  event.setId(IdNormalizerUtil.normalize(event.getId()));
-                }
-              });
+  // Races a second attempt against a slow first one once it passes the recent p95 latency.
+  // Whichever signals first wins and the other is cancelled; hedges draw on the retry budget.
+  private Mono<TicketMasterEventPageDto> hedged(Mono<TicketMasterEventPageDto> attempt) {
+    if (!hedgeEnabled) {
+      return attempt;
     }
-    return response;
+    return Mono.defer(
+        () -> {
+          Duration hedgeDelay = latencyWindow.getPercentile();
+          if (hedgeDelay == null) {
+            return attempt;
+          }
+          Mono<TicketMasterEventPageDto> hedge =
+              Mono.delay(hedgeDelay)
+                  .then(
+                      Mono.defer(
+                          () ->
+                              retryBudget.tryWithdraw()
+                                  ? attempt.doOnSubscribe(s -> hedges.increment())
+                                  : Mono.never()));
+          return Mono.firstWithSignal(attempt, hedge);
+        });
+  }
+
+  // Transient failures worth retrying, and the ones that count against the circuit breaker
+  private static boolean isRetryable(Throwable e) {
+    return e instanceof WebClientRequestException
+        || e instanceof TimeoutException
+        || (e instanceof WebClientResponseException responseException
+            && responseException.getStatusCode().is5xxServerError());
   }
 }
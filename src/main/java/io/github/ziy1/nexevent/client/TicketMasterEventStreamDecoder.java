@@ -0,0 +1,278 @@
+package io.github.ziy1.nexevent.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.dto.TicketMasterApiResponseDto;
+import io.github.ziy1.nexevent.dto.TicketMasterEventPageDto;
+import io.github.ziy1.nexevent.util.IdNormalizerUtil;
+
+// Decodes a Ticketmaster event search as the body streams in, using Jackson's non-blocking parser.
+// Only the fields the cached projection needs are picked out of _embedded.events by their
+// position in the document; everything else is tokenized and dropped, so neither the full body
+// nor the response object graph is ever held. Produces the same values as binding
+// TicketMasterApiResponseDto and mapping it with EventMapper.toCachedEvent, with ids normalized.
+public class TicketMasterEventStreamDecoder {
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  public Mono<TicketMasterEventPageDto> decode(Flux<DataBuffer> body) {
+    return Mono.defer(
+        () -> {
+          PageParser pageParser = new PageParser();
+          return body.doOnNext(
+                  buffer -> {
+                    try {
+                      pageParser.feed(buffer);
+                    } finally {
+                      DataBufferUtils.release(buffer);
+                    }
+                  })
+              .then(Mono.fromCallable(pageParser::finish))
+              .doFinally(signal -> pageParser.close());
+        });
+  }
+
+  private static class PageParser {
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final List<CachedEventDto> events = new ArrayList<>();
+    private int totalPages;
+
+    private EventFields event;
+    private JsonStreamContext eventContext;
+
+    PageParser() {
+      try {
+        this.parser = JSON_FACTORY.createNonBlockingByteBufferParser();
+      } catch (IOException e) {
+        throw new IllegalStateException("Could not create JSON parser", e);
+      }
+      this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    // Parses the buffer in place; every token is drained before it is released
+    void feed(DataBuffer buffer) {
+      try (DataBuffer.ByteBufferIterator byteBuffers = buffer.readableByteBuffers()) {
+        while (byteBuffers.hasNext()) {
+          feeder.feedInput(byteBuffers.next());
+          drain();
+        }
+      } catch (IOException e) {
+        throw new DecodingException("Invalid Ticketmaster response: " + e.getMessage(), e);
+      }
+    }
+
+    TicketMasterEventPageDto finish() {
+      try {
+        feeder.endOfInput();
+        drain();
+      } catch (IOException e) {
+        throw new DecodingException("Invalid Ticketmaster response: " + e.getMessage(), e);
+      }
+      return new TicketMasterEventPageDto(List.copyOf(events), totalPages);
+    }
+
+    void close() {
+      try {
+        parser.close();
+      } catch (IOException e) {
+        // Nothing held beyond the parser's own buffers
+      }
+    }
+
+    private void drain() throws IOException {
+      JsonToken token;
+      while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+        switch (token) {
+          case START_OBJECT -> onStartObject(parser.getParsingContext());
+          case END_OBJECT -> onEndObject(parser.getParsingContext());
+          case START_ARRAY, END_ARRAY, FIELD_NAME -> {}
+          default -> onValue(token, parser.getParsingContext());
+        }
+      }
+    }
+
+    private void onStartObject(JsonStreamContext context) {
+      if (event == null) {
+        if (isEvent(context)) {
+          event = new EventFields();
+          eventContext = context;
+        }
+        return;
+      }
+
+      if (isClassification(context)) {
+        // A classification without a genre still contributes an empty name
+        event.genreName = "";
+      } else if (isFirstVenue(context)) {
+        event.hasVenue = true;
+      }
+    }
+
+    // On END_OBJECT the parser has already stepped out to the enclosing context
+    private void onEndObject(JsonStreamContext context) {
+      if (event == null) {
+        return;
+      }
+      if (context == eventContext.getParent()) {
+        events.add(event.build());
+        event = null;
+        eventContext = null;
+      } else if (context.getParent() == eventContext && inField(eventContext, "classifications")) {
+        if (event.genreName != null) {
+          event.categories.add(event.genreName);
+        }
+        event.genreName = null;
+      }
+    }
+
+    private void onValue(JsonToken token, JsonStreamContext context) throws IOException {
+      String name = parser.currentName();
+      if (name == null) {
+        return;
+      }
+      JsonStreamContext parent = context.getParent();
+
+      if (event == null) {
+        // {"page": {"totalPages": n}}
+        if ("totalPages".equals(name)
+            && token.isNumeric()
+            && inField(parent, "page")
+            && parent.getParent().inRoot()) {
+          totalPages = parser.getIntValue();
+        }
+        return;
+      }
+
+      // Values are only turned into strings once a field is known to be wanted
+      if (context == eventContext) {
+        switch (name) {
+          case "id" -> event.id = text();
+          case "name" -> event.name = text();
+          case "url" -> event.url = text();
+          case "distance" -> event.distance = token.isNumeric() ? parser.getDoubleValue() : 0;
+          default -> {}
+        }
+      } else if (parent.inArray() && parent.getParent() == eventContext) {
+        // images[].url
+        if ("url".equals(name)
+            && inField(eventContext, "images")
+            && event.imageUrl == null
+            && token != JsonToken.VALUE_NULL
+            && parser.getTextLength() > 0) {
+          event.imageUrl = text();
+        }
+      } else if ("name".equals(name) && inField(parent, "genre") && isClassification(parent)) {
+        // classifications[].genre.name
+        event.genreName = text();
+      } else if (isFirstVenue(parent)) {
+        // _embedded.venues[0].{address,city,state,location}.field
+        switch (parent.getCurrentName() + "." + name) {
+          case "address.line1" -> event.line1 = text();
+          case "address.line2" -> event.line2 = text();
+          case "address.line3" -> event.line3 = text();
+          case "city.name" -> event.cityName = text();
+          case "state.name" -> event.stateName = text();
+          case "location.latitude" -> event.latitude = text();
+          case "location.longitude" -> event.longitude = text();
+          default -> {}
+        }
+      }
+    }
+
+    private String text() throws IOException {
+      return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    // {"_embedded": {"events": [ {...} ]}}
+    private static boolean isEvent(JsonStreamContext context) {
+      JsonStreamContext array = context.getParent();
+      if (array == null || !array.inArray()) {
+        return false;
+      }
+      JsonStreamContext embedded = array.getParent();
+      return inField(embedded, "events")
+          && inField(embedded.getParent(), "_embedded")
+          && embedded.getParent().getParent().inRoot();
+    }
+
+    // classifications[i]
+    private boolean isClassification(JsonStreamContext context) {
+      return context != null
+          && context.inObject()
+          && context.getParent().inArray()
+          && context.getParent().getParent() == eventContext
+          && inField(eventContext, "classifications");
+    }
+
+    // _embedded.venues[0]
+    private boolean isFirstVenue(JsonStreamContext context) {
+      if (context == null || !context.inObject() || !context.getParent().inArray()) {
+        return false;
+      }
+      JsonStreamContext array = context.getParent();
+      JsonStreamContext embedded = array.getParent();
+      return array.getCurrentIndex() == 0
+          && inField(embedded, "venues")
+          && embedded.getParent() == eventContext
+          && inField(eventContext, "_embedded");
+    }
+
+    // Whether an object context is currently inside the given field
+    private static boolean inField(JsonStreamContext context, String name) {
+      return context != null && context.inObject() && name.equals(context.getCurrentName());
+    }
+  }
+
+  // Defaults match TicketMasterApiResponseDto's
+  private static class EventFields {
+    private String id = "";
+    private String name = "";
+    private String url = "";
+    private double distance;
+    private String imageUrl;
+    private final Set<String> categories = new HashSet<>();
+    private String genreName;
+    private boolean hasVenue;
+    private String line1 = "";
+    private String line2 = "";
+    private String line3 = "";
+    private String cityName = "";
+    private String stateName = "";
+    private String latitude;
+    private String longitude;
+
+    CachedEventDto build() {
+      return new CachedEventDto(
+          IdNormalizerUtil.normalize(id),
+          name,
+          url,
+          distance,
+          imageUrl != null ? imageUrl : "",
+          hasVenue
+              ? TicketMasterApiResponseDto.Embedded.Event.formatAddress(
+                  line1, line2, line3, cityName, stateName)
+              : "",
+          categories,
+          hasVenue ? TicketMasterApiResponseDto.Embedded.Event.parseCoordinate(latitude) : null,
+          hasVenue ? TicketMasterApiResponseDto.Embedded.Event.parseCoordinate(longitude) : null);
+    }
+  }
+}
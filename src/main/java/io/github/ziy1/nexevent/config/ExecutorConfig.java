@@ -1,29 +1,153 @@
 package io.github.ziy1.nexevent.config;
 
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import lombok.extern.slf4j.Slf4j;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 
+@Slf4j
 @Configuration
 public class ExecutorConfig {
+  private static final String EXECUTOR_NAME = "events";
 
+  // Blocking JPA work handed off by the reactive event pipeline, one thread per pooled connection.
+  // Saturation is rejected rather than run on the caller, which may be a Netty or Lettuce event
+  // loop thread, and the queue is kept short so overload fails fast instead of adding latency.
+  // With spring.threads.virtual.enabled on JDK 21+, each task gets a virtual thread instead and
+  // a semaphore bounds how many run at once.
   @Bean
   public ExecutorService executorService(
-      @Value("${executor.core.pool.size:1}") int corePoolSize,
-      @Value("${executor.thread.pool.size:2}") int threadPoolSize,
+      @Value("${executor.thread.pool.size:10}") int threadPoolSize,
       @Value("${executor.keep.alive.time:60}") long keepAliveTime,
-      @Value("${executor.queue.size:10}") int queueSize) {
-    return new ThreadPoolExecutor(
-        corePoolSize,
-        threadPoolSize,
-        keepAliveTime,
-        TimeUnit.SECONDS,
-        new LinkedBlockingQueue<>(queueSize),
-        new ThreadPoolExecutor.CallerRunsPolicy());
+      @Value("${executor.queue.size:10}") int queueSize,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+      @Value("${executor.virtual.max-concurrency:10}") int virtualMaxConcurrency,
+      MeterRegistry meterRegistry) {
+    if (virtualThreadsEnabled) {
+      if (supportsVirtualThreads()) {
+        SemaphoreBoundedExecutorService executor =
+            new SemaphoreBoundedExecutorService(
+                newVirtualThreadPerTaskExecutor(), virtualMaxConcurrency);
+        // Same names as the thread pool gauges so dashboards work in either mode
+        Gauge.builder("executor.active", executor, SemaphoreBoundedExecutorService::getActive)
+            .tag("name", EXECUTOR_NAME)
+            .register(meterRegistry);
+        Gauge.builder("executor.queued", executor, SemaphoreBoundedExecutorService::getWaiting)
+            .tag("name", EXECUTOR_NAME)
+            .register(meterRegistry);
+        return executor;
+      }
+      log.warn("Virtual threads need JDK 21+, using the platform thread pool");
+    }
+
+    // Core equals max: a ThreadPoolExecutor only grows past core once the queue is full
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threadPoolSize,
+            threadPoolSize,
+            keepAliveTime,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueSize),
+            new ThreadPoolExecutor.AbortPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    // executor.active, executor.queued, executor.pool.size and friends
+    new ExecutorServiceMetrics(executor, EXECUTOR_NAME, List.of()).bindTo(meterRegistry);
+    return executor;
+  }
+
+  static boolean supportsVirtualThreads() {
+    return Runtime.version().feature() >= 21;
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      // Looked up reflectively so the build can stay on Java 17
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Virtual threads are not available", e);
+    }
+  }
+
+  // Tasks wait for a permit on their own (virtual) thread, so nothing is queued or rejected
+  private static class SemaphoreBoundedExecutorService extends AbstractExecutorService {
+    private final ExecutorService delegate;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+
+    SemaphoreBoundedExecutorService(ExecutorService delegate, int maxConcurrency) {
+      this.delegate = delegate;
+      this.maxConcurrency = maxConcurrency;
+      this.permits = new Semaphore(maxConcurrency);
+    }
+
+    int getActive() {
+      return maxConcurrency - permits.availablePermits();
+    }
+
+    // Tasks started on a virtual thread but still waiting for a permit
+    int getWaiting() {
+      return permits.getQueueLength();
+    }
+
+    @Override
+    public void execute(@NonNull Runnable task) {
+      delegate.execute(
+          () -> {
+            try {
+              permits.acquire();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              return;
+            }
+            try {
+              task.run();
+            } finally {
+              permits.release();
+            }
+          });
+    }
+
+    @Override
+    public void shutdown() {
+      delegate.shutdown();
+    }
+
+    @Override
+    @NonNull
+    public List<Runnable> shutdownNow() {
+      return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NonNull TimeUnit unit)
+        throws InterruptedException {
+      return delegate.awaitTermination(timeout, unit);
+    }
   }
 }
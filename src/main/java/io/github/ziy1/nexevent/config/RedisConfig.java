@@ -1,15 +1,28 @@
 package io.github.ziy1.nexevent.config;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import io.github.ziy1.nexevent.cache.TypedJacksonRedisSerializer;
+import io.github.ziy1.nexevent.dto.CachedEventsDto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Configuration
 public class RedisConfig {
 
@@ -19,22 +32,57 @@ public class RedisConfig {
   @Value("${spring.redis.port:6379}")
   private int redisPort;
 
+  // json (readable with redis-cli) or smile (binary JSON, smaller payloads)
+  @Value("${cache.serialization.format:json}")
+  private String cacheSerializationFormat;
+
+  // Declared as LettuceConnectionFactory so it also serves the reactive templates
   @Bean
-  public RedisConnectionFactory redisConnectionFactory() {
+  public LettuceConnectionFactory redisConnectionFactory() {
     RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(redisHost, redisPort);
     return new LettuceConnectionFactory(config);
   }
 
   @Bean
-  public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
-    RedisTemplate<String, Object> template = new RedisTemplate<>();
-    template.setConnectionFactory(connectionFactory);
+  public ReactiveRedisTemplate<String, CachedEventsDto> ticketMasterRedisTemplate(
+      ReactiveRedisConnectionFactory connectionFactory, MeterRegistry meterRegistry) {
+    Timer decodeTimer =
+        Timer.builder("ticketmaster.events.cache.decode")
+            .description("Deserializing a cached event search read from Redis")
+            .tag("format", cacheSerializationFormat.toLowerCase())
+            .register(meterRegistry);
+    RedisSerializationContext<String, CachedEventsDto> serializationContext =
+        RedisSerializationContext.<String, CachedEventsDto>newSerializationContext(
+                new StringRedisSerializer())
+            .value(
+                new TypedJacksonRedisSerializer<>(
+                    cacheObjectMapper(), CachedEventsDto.class, decodeTimer))
+            .build();
 
-    // Use Jackson2JsonRedisSerializer for values
-    template.setValueSerializer(new Jackson2JsonRedisSerializer<>(Object.class));
-    // Use StringRedisSerializer for keys
-    template.setKeySerializer(new StringRedisSerializer());
+    return new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+  }
 
-    return template;
+  @Bean
+  public ReactiveStringRedisTemplate reactiveStringRedisTemplate(
+      ReactiveRedisConnectionFactory connectionFactory) {
+    return new ReactiveStringRedisTemplate(connectionFactory);
+  }
+
+  private ObjectMapper cacheObjectMapper() {
+    ObjectMapper mapper =
+        "smile".equalsIgnoreCase(cacheSerializationFormat)
+            ? new ObjectMapper(new SmileFactory())
+            : new ObjectMapper();
+    // Lenient; entries of an incompatible shape are kept apart by TicketMasterEventCache.KEY_PREFIX
+    mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    return mapper;
+  }
+
+  @Bean
+  public RedisMessageListenerContainer redisMessageListenerContainer(
+      RedisConnectionFactory connectionFactory) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    return container;
   }
 }
@@ -2,18 +2,26 @@ package io.github.ziy1.nexevent.config;
 
 import java.util.List;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -32,11 +40,50 @@ public class SecurityConfig {
   @Value("#{'${cors.allowed-origins}'.split(',')}")
   private List<String> allowedOrigins;
 
+  @Value("${auth.password.bcrypt-strength:10}")
+  private int bcryptStrength;
+
+  @Value("${metrics.scrape.username:prometheus}")
+  private String scrapeUsername;
+
+  @Value("${metrics.scrape.password:}")
+  private String scrapePassword;
+
   public SecurityConfig(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService) {
     this.jwtTokenProvider = jwtTokenProvider;
     this.userDetailsService = userDetailsService;
   }
 
+  // Metrics expose executor, pool, JVM and per-endpoint latency data, so the scraper has to log in
+  // with HTTP Basic. Without a configured password nobody can.
+  @Bean
+  @Order(1)
+  public SecurityFilterChain prometheusFilterChain(HttpSecurity http) throws Exception {
+    http.securityMatcher("/actuator/prometheus")
+        .csrf(AbstractHttpConfigurer::disable)
+        .sessionManagement(
+            session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+    if (scrapePassword.isBlank()) {
+      return http.authorizeHttpRequests(auth -> auth.anyRequest().denyAll()).build();
+    }
+
+    PasswordEncoder encoder = passwordEncoder();
+    DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+    provider.setPasswordEncoder(encoder);
+    provider.setUserDetailsService(
+        new InMemoryUserDetailsManager(
+            User.withUsername(scrapeUsername)
+                .password(encoder.encode(scrapePassword))
+                .authorities("METRICS")
+                .build()));
+
+    return http.authenticationManager(new ProviderManager(provider))
+        .authorizeHttpRequests(auth -> auth.anyRequest().hasAuthority("METRICS"))
+        .httpBasic(Customizer.withDefaults())
+        .build();
+  }
+
   @Bean
   public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     return http.csrf(AbstractHttpConfigurer::disable)
@@ -45,7 +92,10 @@ public class SecurityConfig {
             session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(
             auth ->
-                auth.requestMatchers(
+                // Async dispatches of reactive endpoints were authorized on the original request
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC)
+                    .permitAll()
+                    .requestMatchers(
                         "/",
                         "/index.html",
                         "/static/**",
@@ -56,6 +106,9 @@ public class SecurityConfig {
                         "/robots.txt",
                         "/auth/**")
                     .permitAll()
+                    // Load balancer health checks
+                    .requestMatchers("/actuator/health")
+                    .permitAll()
                     .anyRequest()
                     .authenticated())
         .addFilterBefore(
@@ -78,7 +131,18 @@ public class SecurityConfig {
 
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    String cost = String.format("%02d", bcryptStrength);
+    return new BCryptPasswordEncoder(bcryptStrength) {
+      // Rehash on login whenever the stored cost differs, not just when it is lower, so lowering
+      // the cost for throughput takes effect too
+      @Override
+      public boolean upgradeEncoding(String encodedPassword) {
+        return encodedPassword != null
+            && encodedPassword.length() > 7
+            && encodedPassword.charAt(3) == '$'
+            && !encodedPassword.startsWith(cost, 4);
+      }
+    };
   }
 
   @Bean
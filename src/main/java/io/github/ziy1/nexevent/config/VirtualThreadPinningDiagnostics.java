@@ -0,0 +1,103 @@
+package io.github.ziy1.nexevent.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+// Streams JFR jdk.VirtualThreadPinned events and attributes each pin to JPA/JDBC, Lettuce or
+// other code, so we can see which blocking calls hold carrier threads in virtual thread mode
+@Slf4j
+@Lazy(false)
+@Component
+@ConditionalOnProperty(name = "executor.virtual.pinning-diagnostics", havingValue = "true")
+public class VirtualThreadPinningDiagnostics {
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private final MeterRegistry meterRegistry;
+  private RecordingStream recordingStream;
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreadsEnabled;
+
+  @Value("${executor.virtual.pinning-threshold-ms:20}")
+  private long thresholdMs;
+
+  public VirtualThreadPinningDiagnostics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!virtualThreadsEnabled || !ExecutorConfig.supportsVirtualThreads()) {
+      return;
+    }
+
+    recordingStream = new RecordingStream();
+    recordingStream
+        .enable(PINNED_EVENT)
+        .withThreshold(Duration.ofMillis(thresholdMs))
+        .withStackTrace();
+    recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+    recordingStream.startAsync();
+    log.info("Virtual thread pinning diagnostics enabled (threshold {}ms)", thresholdMs);
+  }
+
+  private void onPinned(RecordedEvent event) {
+    List<RecordedFrame> frames =
+        event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+    String source = classify(frames);
+
+    Counter.builder("executor.virtual.pinned")
+        .description("Virtual thread pinning events above the threshold")
+        .tag("source", source)
+        .register(meterRegistry)
+        .increment();
+
+    log.warn(
+        "Virtual thread pinned for {}ms in {} code at {}",
+        event.getDuration().toMillis(),
+        source,
+        frames.isEmpty() ? "unknown" : describe(frames.get(0)));
+  }
+
+  private static String classify(List<RecordedFrame> frames) {
+    for (RecordedFrame frame : frames) {
+      String type = frame.getMethod().getType().getName();
+      if (type.startsWith("org.hibernate")
+          || type.startsWith("com.mysql")
+          || type.startsWith("com.zaxxer.hikari")) {
+        return "jpa";
+      }
+      if (type.startsWith("io.lettuce") || type.startsWith("org.springframework.data.redis")) {
+        return "lettuce";
+      }
+    }
+    return "other";
+  }
+
+  private static String describe(RecordedFrame frame) {
+    return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (recordingStream != null) {
+      recordingStream.close();
+    }
+  }
+}
@@ -39,6 +39,9 @@ public class WebClientConfig {
   @Value("${webclient.max-in-memory-size:10485760}")
   private int maxInMemorySize;
 
+  @Value("${webclient.pool-metrics:true}")
+  private boolean poolMetrics;
+
   @Bean
   public WebClient webClient(WebClient.Builder builder) {
     // Connection pool configuration
@@ -49,6 +52,7 @@ public class WebClientConfig {
             .maxLifeTime(Duration.ofMinutes(maxLifeTime)) // Maximum lifetime of a connection
             .pendingAcquireTimeout(
                 Duration.ofSeconds(pendingAcquireTimeout)) // How long to wait for a connection
+            .metrics(poolMetrics) // Pool gauges, reported to the global Micrometer registry
             .build();
 
     // HTTP client configuration
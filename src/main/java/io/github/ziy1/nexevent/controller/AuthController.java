@@ -10,11 +10,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import reactor.core.publisher.Mono;
+
 import io.github.ziy1.nexevent.dto.AuthLoginRequestDto;
 import io.github.ziy1.nexevent.dto.AuthLoginResponseDto;
 import io.github.ziy1.nexevent.dto.AuthRegisterRequestDto;
 import io.github.ziy1.nexevent.dto.ResponseMessage;
 import io.github.ziy1.nexevent.security.JwtTokenProvider;
+import io.github.ziy1.nexevent.security.PasswordHashingExecutor;
 import io.github.ziy1.nexevent.service.AuthService;
 
 @RestController
@@ -22,48 +25,58 @@ import io.github.ziy1.nexevent.service.AuthService;
 public class AuthController {
   private final AuthService authService;
   private final JwtTokenProvider jwtTokenProvider;
+  private final PasswordHashingExecutor passwordHashingExecutor;
 
-  public AuthController(AuthService authService, JwtTokenProvider jwtTokenProvider) {
+  public AuthController(
+      AuthService authService,
+      JwtTokenProvider jwtTokenProvider,
+      PasswordHashingExecutor passwordHashingExecutor) {
     this.authService = authService;
     this.jwtTokenProvider = jwtTokenProvider;
+    this.passwordHashingExecutor = passwordHashingExecutor;
   }
 
+  // Register and login hash passwords, so they run on the hashing pool and release the Tomcat
+  // thread; a full pool answers 503 through RejectedExecutionException
   @PostMapping("/register")
-  public ResponseEntity<ResponseMessage<Void>> register(
+  public Mono<ResponseEntity<ResponseMessage<Void>>> register(
       @Validated @RequestBody AuthRegisterRequestDto authRegisterRequestDto,
       HttpServletRequest request) {
-    AuthRegisterRequestDto registeredUser = authService.register(authRegisterRequestDto);
-
-    if (registeredUser == null) {
-      return ResponseEntity.status(HttpStatus.CONFLICT)
-          .body(
-              ResponseMessage.error(
-                  HttpStatus.CONFLICT,
-                  request.getRequestURI(),
-                  "User already exists with ID (case-insensitive): "
-                      + authRegisterRequestDto.userId(),
-                  null));
-    }
+    String path = request.getRequestURI();
 
-    return ResponseEntity.status(HttpStatus.CREATED)
-        .body(
-            ResponseMessage.success("User registered successfully", request.getRequestURI(), null));
+    return passwordHashingExecutor
+        .submit("register", () -> authService.register(authRegisterRequestDto))
+        .map(
+            registeredUser ->
+                ResponseEntity.status(HttpStatus.CREATED)
+                    .body(
+                        ResponseMessage.<Void>success("User registered successfully", path, null)))
+        .defaultIfEmpty(
+            ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(
+                    ResponseMessage.error(
+                        HttpStatus.CONFLICT,
+                        path,
+                        "User already exists with ID (case-insensitive): "
+                            + authRegisterRequestDto.userId(),
+                        null)));
   }
 
   @PostMapping("/login")
-  public ResponseEntity<ResponseMessage<AuthLoginResponseDto>> login(
+  public Mono<ResponseEntity<ResponseMessage<AuthLoginResponseDto>>> login(
       @Validated @RequestBody AuthLoginRequestDto authLoginRequestDto, HttpServletRequest request) {
-    AuthLoginResponseDto authResponse =
-        authService.login(authLoginRequestDto.userId(), authLoginRequestDto.password());
-
-    if (authResponse == null) {
-      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-          .body(
-              ResponseMessage.error(
-                  HttpStatus.UNAUTHORIZED, request.getRequestURI(), "Invalid credentials", null));
-    }
+    String path = request.getRequestURI();
 
-    return ResponseEntity.ok(ResponseMessage.success(request.getRequestURI(), authResponse));
+    return passwordHashingExecutor
+        .submit(
+            "login",
+            () -> authService.login(authLoginRequestDto.userId(), authLoginRequestDto.password()))
+        .map(authResponse -> ResponseEntity.ok(ResponseMessage.success(path, authResponse)))
+        .defaultIfEmpty(
+            ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(
+                    ResponseMessage.error(
+                        HttpStatus.UNAUTHORIZED, path, "Invalid credentials", null)));
   }
 
   @PostMapping("/logout")
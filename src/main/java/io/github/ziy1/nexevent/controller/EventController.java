@@ -10,6 +10,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import reactor.core.publisher.Mono;
+
 import io.github.ziy1.nexevent.dto.EventDto;
 import io.github.ziy1.nexevent.dto.ResponseMessage;
 import io.github.ziy1.nexevent.service.EventService;
@@ -28,20 +30,24 @@ public class EventController {
     return (String) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
   }
 
+  // Reactive endpoints complete asynchronously, so the user and path are read up front
   @GetMapping("/nearby")
-  public ResponseEntity<ResponseMessage<List<EventDto>>> searchNearByEvents(
+  public Mono<ResponseEntity<ResponseMessage<List<EventDto>>>> searchNearByEvents(
       @RequestParam("lat") Double latitude,
       @RequestParam("lon") Double longitude,
       HttpServletRequest request) {
-
-    List<EventDto> events =
-        eventService.searchNearByEvents(getCurrentUserId(), latitude, longitude, null);
-
-    if (events.isEmpty()) {
-      return ResponseEntity.status(HttpStatus.NO_CONTENT)
-          .body(ResponseMessage.noContent(request.getRequestURI(), "No nearby events found"));
-    }
-    return ResponseEntity.ok(ResponseMessage.success(request.getRequestURI(), events));
+    String path = request.getRequestURI();
+
+    return eventService
+        .searchNearByEventsReactive(getCurrentUserId(), latitude, longitude, null)
+        .map(
+            events -> {
+              if (events.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NO_CONTENT)
+                    .body(ResponseMessage.noContent(path, "No nearby events found"));
+              }
+              return ResponseEntity.ok(ResponseMessage.success(path, events));
+            });
   }
 
   @PostMapping("/favorite")
@@ -69,13 +75,16 @@ public class EventController {
   }
 
   @GetMapping("/recommend")
-  public ResponseEntity<ResponseMessage<List<EventDto>>> getRecommendedEvents(
+  public Mono<ResponseEntity<ResponseMessage<List<EventDto>>>> getRecommendedEvents(
       @RequestParam("lat") Double latitude,
       @RequestParam("lon") Double longitude,
       HttpServletRequest request) {
-    List<EventDto> recommendedEvents =
-        eventService.getRecommendedEvents(getCurrentUserId(), latitude, longitude);
+    String path = request.getRequestURI();
 
-    return ResponseEntity.ok(ResponseMessage.success(request.getRequestURI(), recommendedEvents));
+    return eventService
+        .getRecommendedEventsReactive(getCurrentUserId(), latitude, longitude)
+        .map(
+            recommendedEvents ->
+                ResponseEntity.ok(ResponseMessage.success(path, recommendedEvents)));
   }
 }
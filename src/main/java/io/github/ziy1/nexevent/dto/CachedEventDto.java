@@ -0,0 +1,16 @@
+package io.github.ziy1.nexevent.dto;
+
+import java.util.Set;
+
+// EventDto without the user-specific favorite flag, as stored in the Ticketmaster cache. The venue
+// coordinates let distance be recomputed for users elsewhere in the cached cell.
+public record CachedEventDto(
+    String id,
+    String name,
+    String url,
+    double distance,
+    String imageUrl,
+    String address,
+    Set<String> categories,
+    Double latitude,
+    Double longitude) {}
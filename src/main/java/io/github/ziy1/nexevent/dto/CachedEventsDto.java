@@ -0,0 +1,6 @@
+package io.github.ziy1.nexevent.dto;
+
+import java.util.List;
+
+// fetchedAt (epoch millis) and fetchMillis (upstream latency) drive soft expiry and early refresh
+public record CachedEventsDto(List<CachedEventDto> events, long fetchedAt, long fetchMillis) {}
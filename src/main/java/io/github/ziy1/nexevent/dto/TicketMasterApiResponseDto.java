@@ -63,27 +63,65 @@ public class TicketMasterApiResponseDto {
             .map(EmbeddedVenue::getVenues)
             .filter(venues -> !venues.isEmpty())
             .map(
-                venues -> {
-                  String addressLines =
-                      String.join(
-                              " ",
-                              Optional.ofNullable(venues.get(0).getAddress().getLine1()).orElse(""),
-                              Optional.ofNullable(venues.get(0).getAddress().getLine2()).orElse(""),
-                              Optional.ofNullable(venues.get(0).getAddress().getLine3()).orElse(""))
-                          .trim();
-                  String cityName =
-                      Optional.ofNullable(venues.get(0).getCity().getName()).orElse("");
-                  String stateName =
-                      Optional.ofNullable(venues.get(0).getState().getName()).orElse("");
-
-                  return (addressLines + ", " + cityName + ", " + stateName)
-                      .trim()
-                      .replaceAll(", ,", ",");
-                })
+                venues ->
+                    formatAddress(
+                        venues.get(0).getAddress().getLine1(),
+                        venues.get(0).getAddress().getLine2(),
+                        venues.get(0).getAddress().getLine3(),
+                        venues.get(0).getCity().getName(),
+                        venues.get(0).getState().getName()))
             .orElse("")
             .trim();
       }
 
+      // Shared with the streaming decoder so both produce the same address
+      public static String formatAddress(
+          String line1, String line2, String line3, String cityName, String stateName) {
+        String addressLines =
+            String.join(
+                    " ",
+                    Optional.ofNullable(line1).orElse(""),
+                    Optional.ofNullable(line2).orElse(""),
+                    Optional.ofNullable(line3).orElse(""))
+                .trim();
+        return (addressLines
+                + ", "
+                + Optional.ofNullable(cityName).orElse("")
+                + ", "
+                + Optional.ofNullable(stateName).orElse(""))
+            .trim()
+            .replaceAll(", ,", ",")
+            .trim();
+      }
+
+      // Venue coordinates, null when Ticketmaster has none
+      public Double getLatitude() {
+        return venueLocation()
+            .map(location -> parseCoordinate(location.getLatitude()))
+            .orElse(null);
+      }
+
+      public Double getLongitude() {
+        return venueLocation()
+            .map(location -> parseCoordinate(location.getLongitude()))
+            .orElse(null);
+      }
+
+      private Optional<EmbeddedVenue.Venue.Location> venueLocation() {
+        return Optional.ofNullable(embeddedVenue)
+            .map(EmbeddedVenue::getVenues)
+            .filter(venues -> !venues.isEmpty())
+            .map(venues -> venues.get(0).getLocation());
+      }
+
+      public static Double parseCoordinate(String value) {
+        try {
+          return value != null && !value.isEmpty() ? Double.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+          return null;
+        }
+      }
+
       @Data
       public static class Image {
         @JsonProperty("url")
@@ -118,6 +156,9 @@ public class TicketMasterApiResponseDto {
           @JsonProperty("address")
           private Address address = new Address();
 
+          @JsonProperty("location")
+          private Location location;
+
           @Data
           public static class City {
             @JsonProperty("name")
@@ -141,6 +182,15 @@ public class TicketMasterApiResponseDto {
             @JsonProperty("line3")
             private String line3 = "";
           }
+
+          @Data
+          public static class Location {
+            @JsonProperty("latitude")
+            private String latitude;
+
+            @JsonProperty("longitude")
+            private String longitude;
+          }
         }
       }
     }
@@ -0,0 +1,6 @@
+package io.github.ziy1.nexevent.dto;
+
+import java.util.List;
+
+// One page of a Ticketmaster search, decoded straight into the cached event projection
+public record TicketMasterEventPageDto(List<CachedEventDto> events, int totalPages) {}
@@ -12,7 +12,7 @@ import lombok.*;
 @AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Entity
-@Table(name = "event")
+@Table(name = "event", indexes = @Index(name = "idx_event_geohash", columnList = "geohash"))
 public class Event {
   @Id
   @EqualsAndHashCode.Include
@@ -34,6 +34,16 @@ public class Event {
   @Column(name = "address")
   private String address;
 
+  @Column(name = "latitude")
+  private Double latitude;
+
+  @Column(name = "longitude")
+  private Double longitude;
+
+  // Full precision geohash of the venue, for prefix lookups by area
+  @Column(name = "geohash", length = 12)
+  private String geohash;
+
   @ManyToMany
   @JoinTable(
       name = "event_category",
@@ -1,5 +1,7 @@
 package io.github.ziy1.nexevent.exception;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import jakarta.servlet.http.HttpServletRequest;
 
 import org.slf4j.Logger;
@@ -23,4 +25,15 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
         .body(ResponseMessage.error(request.getRequestURI(), ex.getMessage()));
   }
+
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ResponseEntity<ResponseMessage<Void>> handleRejectedExecutionException(
+      RejectedExecutionException ex, HttpServletRequest request) {
+    log.warn("Rejected work under load: {}", ex.getMessage());
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .body(
+            ResponseMessage.error(
+                HttpStatus.SERVICE_UNAVAILABLE, request.getRequestURI(), "Server is busy", null));
+  }
 }
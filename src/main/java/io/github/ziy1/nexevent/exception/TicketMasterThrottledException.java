@@ -0,0 +1,12 @@
+package io.github.ziy1.nexevent.exception;
+
+// Ticketmaster was not called, or answered 429, because a rate or concurrency limit was reached
+public class TicketMasterThrottledException extends TicketMasterUnavailableException {
+  public TicketMasterThrottledException(String message) {
+    super(message);
+  }
+
+  public TicketMasterThrottledException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,12 @@
+package io.github.ziy1.nexevent.exception;
+
+// Ticketmaster could not be reached or kept failing, as opposed to answering with no events
+public class TicketMasterUnavailableException extends RuntimeException {
+  public TicketMasterUnavailableException(String message) {
+    super(message);
+  }
+
+  public TicketMasterUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
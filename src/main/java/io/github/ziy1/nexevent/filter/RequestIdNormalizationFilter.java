@@ -1,11 +1,19 @@
 package io.github.ziy1.nexevent.filter;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,79 +25,176 @@ import org.springframework.util.StreamUtils;
 
 import io.github.ziy1.nexevent.util.IdNormalizerUtil;
 
+// Lowercases ID query parameters and top-level string ID fields of JSON bodies. Requests with
+// neither pass through unwrapped, and a JSON body is only rewritten when an ID in it actually
+// changes; otherwise the bytes read are handed on as they are.
 @Component
 @Order(1)
 public class RequestIdNormalizationFilter implements Filter {
   private static final Set<String> ID_PARAMETERS =
       Set.of("userId", "eventId", "user_id", "event_id");
-  private final ObjectMapper objectMapper = new ObjectMapper();
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
   @Override
   public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
       throws ServletException, IOException {
-    if (request instanceof HttpServletRequest httpRequest) {
-      NormalizedRequestWrapper wrappedRequest = new NormalizedRequestWrapper(httpRequest);
-      chain.doFilter(wrappedRequest, response);
-    } else {
+    if (!(request instanceof HttpServletRequest httpRequest)) {
       chain.doFilter(request, response);
+      return;
+    }
+
+    Map<String, String[]> normalizedParams = normalizeParams(httpRequest.getParameterMap());
+    byte[] normalizedBody = hasJsonBody(httpRequest) ? normalizeJsonBody(httpRequest) : null;
+
+    if (normalizedParams == null && normalizedBody == null) {
+      chain.doFilter(request, response);
+    } else {
+      chain.doFilter(
+          new NormalizedRequestWrapper(httpRequest, normalizedParams, normalizedBody), response);
     }
   }
 
-  private class NormalizedRequestWrapper extends HttpServletRequestWrapper {
-    private byte[] cachedBody;
-    private final Map<String, String[]> normalizedParams;
+  // Null when no ID parameter is present
+  private static Map<String, String[]> normalizeParams(Map<String, String[]> params) {
+    Map<String, String[]> normalized = null;
+    for (String name : ID_PARAMETERS) {
+      String[] values = params.get(name);
+      if (values == null) {
+        continue;
+      }
+      if (normalized == null) {
+        normalized = new LinkedHashMap<>(params);
+      }
+      normalized.put(
+          name, Arrays.stream(values).map(IdNormalizerUtil::normalize).toArray(String[]::new));
+    }
+    return normalized;
+  }
 
-    public NormalizedRequestWrapper(HttpServletRequest request) throws IOException {
-      super(request);
-      // Initialize normalized params
-      Map<String, String[]> originalParams = super.getParameterMap();
-      normalizedParams = new HashMap<>();
-      originalParams.forEach(
-          (key, values) -> {
-            if (ID_PARAMETERS.contains(key)) {
-              normalizedParams.put(
-                  key,
-                  Arrays.stream(values).map(IdNormalizerUtil::normalize).toArray(String[]::new));
-            } else {
-              normalizedParams.put(key, values);
-            }
-          });
+  private static boolean hasJsonBody(HttpServletRequest request) {
+    String contentType = request.getContentType();
+    // -1 when the length is unknown, e.g. chunked
+    return contentType != null
+        && contentType.contains("application/json")
+        && request.getContentLengthLong() != 0;
+  }
 
-      // Cache the request body
-      cachedBody = StreamUtils.copyToByteArray(request.getInputStream());
+  // Always returns the body, since reading it consumes the request's stream
+  private static byte[] normalizeJsonBody(HttpServletRequest request) throws IOException {
+    byte[] body = readBody(request);
+    try {
+      return needsNormalization(body) ? rewrite(body) : body;
+    } catch (IOException e) {
+      // Not valid JSON; leave it for the message converter to reject
+      return body;
+    }
+  }
 
-      // If it's a JSON request, normalize the body
-      String contentType = request.getContentType();
-      if (contentType != null && contentType.contains("application/json")) {
-        normalizeJsonBody();
+  private static byte[] readBody(HttpServletRequest request) throws IOException {
+    long contentLength = request.getContentLengthLong();
+    InputStream inputStream = request.getInputStream();
+    if (contentLength > 0 && contentLength <= Integer.MAX_VALUE) {
+      return inputStream.readNBytes((int) contentLength);
+    }
+    return StreamUtils.copyToByteArray(inputStream);
+  }
+
+  // Scans the tokens without building anything; only ID values are turned into strings
+  private static boolean needsNormalization(byte[] body) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return false;
+      }
+      JsonToken token;
+      while ((token = parser.nextToken()) != null) {
+        if (token == JsonToken.FIELD_NAME && isIdField(parser)) {
+          JsonToken value = parser.nextToken();
+          if (value == JsonToken.VALUE_STRING) {
+            String id = parser.getText();
+            if (!id.equals(IdNormalizerUtil.normalize(id))) {
+              return true;
+            }
+          } else if (value != null && value.isStructStart()) {
+            parser.skipChildren();
+          }
+        } else if (token.isStructStart()) {
+          parser.skipChildren();
+        } else if (token == JsonToken.END_OBJECT) {
+          // End of the root object
+          return false;
+        }
       }
+      return false;
     }
+  }
 
-    private void normalizeJsonBody() {
-      try {
-        String bodyString = new String(cachedBody);
-        ObjectNode jsonNode = (ObjectNode) objectMapper.readTree(bodyString);
-
-        // Normalize ID fields in JSON
-        jsonNode
-            .fields()
-            .forEachRemaining(
-                entry -> {
-                  String key = entry.getKey();
-                  if (ID_PARAMETERS.contains(key)) {
-                    jsonNode.put(key, IdNormalizerUtil.normalize(entry.getValue().asText()));
-                  }
-                });
-
-        cachedBody = objectMapper.writeValueAsBytes(jsonNode);
-      } catch (IOException e) {
-        // Log error or handle appropriately
+  // Copies the root object token by token, lowercasing ID values on the way. Whatever follows it
+  // is appended as it was, for the message converter to accept or reject.
+  private static byte[] rewrite(byte[] body) throws IOException {
+    try (ByteArrayBuilder output = new ByteArrayBuilder(body.length);
+        JsonParser parser = JSON_FACTORY.createParser(body)) {
+      try (JsonGenerator generator = JSON_FACTORY.createGenerator(output)) {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+          if (token == JsonToken.VALUE_STRING && isIdField(parser)) {
+            generator.writeString(IdNormalizerUtil.normalize(parser.getText()));
+          } else {
+            // Exact, so numbers are not reformatted through double
+            generator.copyCurrentEventExact(parser);
+          }
+          if (token == JsonToken.END_OBJECT && parser.getParsingContext().inRoot()) {
+            break;
+          }
+        }
       }
+      int rootEnd = (int) parser.currentLocation().getByteOffset();
+      output.write(body, rootEnd, body.length - rootEnd);
+      return output.toByteArray();
+    }
+  }
+
+  private static boolean isIdField(JsonParser parser) throws IOException {
+    JsonStreamContext parent = parser.getParsingContext().getParent();
+    return parent != null && parent.inRoot() && ID_PARAMETERS.contains(parser.currentName());
+  }
+
+  private static class NormalizedRequestWrapper extends HttpServletRequestWrapper {
+    // Either may be null, meaning the original request's is used
+    private final Map<String, String[]> normalizedParams;
+    private final byte[] body;
+
+    NormalizedRequestWrapper(
+        HttpServletRequest request, Map<String, String[]> normalizedParams, byte[] body) {
+      super(request);
+      this.normalizedParams =
+          normalizedParams != null ? Collections.unmodifiableMap(normalizedParams) : null;
+      this.body = body;
     }
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-      return new CachedBodyServletInputStream(cachedBody);
+      return body != null ? new CachedBodyServletInputStream(body) : super.getInputStream();
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+      if (body == null) {
+        return super.getReader();
+      }
+      String encoding = getCharacterEncoding();
+      Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+      return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    // A rewritten body may differ in length from the original
+    @Override
+    public int getContentLength() {
+      return body != null ? body.length : super.getContentLength();
+    }
+
+    @Override
+    public long getContentLengthLong() {
+      return body != null ? body.length : super.getContentLengthLong();
     }
 
     @Override
@@ -100,30 +205,32 @@ public class RequestIdNormalizationFilter implements Filter {
 
     @Override
     public Map<String, String[]> getParameterMap() {
-      return Collections.unmodifiableMap(normalizedParams);
+      return normalizedParams != null ? normalizedParams : super.getParameterMap();
     }
 
     @Override
     public Enumeration<String> getParameterNames() {
-      return Collections.enumeration(normalizedParams.keySet());
+      return Collections.enumeration(getParameterMap().keySet());
     }
 
     @Override
     public String[] getParameterValues(String name) {
-      return normalizedParams.get(name);
+      return getParameterMap().get(name);
     }
   }
 
+  // Unsynchronized, unlike ByteArrayInputStream, and reads in bulk
   private static class CachedBodyServletInputStream extends ServletInputStream {
-    private final ByteArrayInputStream inputStream;
+    private final byte[] body;
+    private int position;
 
-    public CachedBodyServletInputStream(byte[] cachedBody) {
-      this.inputStream = new ByteArrayInputStream(cachedBody);
+    public CachedBodyServletInputStream(byte[] body) {
+      this.body = body;
     }
 
     @Override
     public boolean isFinished() {
-      return inputStream.available() == 0;
+      return position >= body.length;
     }
 
     @Override
@@ -138,7 +245,41 @@ public class RequestIdNormalizationFilter implements Filter {
 
     @Override
     public int read() {
-      return inputStream.read();
+      return position < body.length ? body[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+      Objects.checkFromIndexSize(offset, length, buffer.length);
+      if (length == 0) {
+        return 0;
+      }
+      int count = Math.min(length, body.length - position);
+      if (count <= 0) {
+        return -1;
+      }
+      System.arraycopy(body, position, buffer, offset, count);
+      position += count;
+      return count;
+    }
+
+    @Override
+    public byte[] readAllBytes() {
+      byte[] remaining = Arrays.copyOfRange(body, position, body.length);
+      position = body.length;
+      return remaining;
+    }
+
+    @Override
+    public int available() {
+      return body.length - position;
+    }
+
+    @Override
+    public long skip(long n) {
+      int count = (int) Math.max(0, Math.min(n, body.length - position));
+      position += count;
+      return count;
     }
   }
 }
@@ -5,6 +5,7 @@ import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
+import io.github.ziy1.nexevent.dto.CachedEventDto;
 import io.github.ziy1.nexevent.dto.EventDto;
 import io.github.ziy1.nexevent.dto.TicketMasterApiResponseDto;
 import io.github.ziy1.nexevent.entity.Category;
@@ -72,6 +73,39 @@ public class EventMapper {
         isFavorite);
   }
 
+  public CachedEventDto toCachedEvent(TicketMasterApiResponseDto.Embedded.Event event) {
+    if (event == null) {
+      return null;
+    }
+
+    return new CachedEventDto(
+        event.getId(),
+        event.getName(),
+        event.getUrl(),
+        event.getDistance(),
+        event.getImageUrl(),
+        event.getAddress(),
+        event.getCategories(),
+        event.getLatitude(),
+        event.getLongitude());
+  }
+
+  public EventDto fromCachedEvent(CachedEventDto event, boolean isFavorite) {
+    if (event == null) {
+      return null;
+    }
+
+    return new EventDto(
+        event.id(),
+        event.name(),
+        event.url(),
+        event.distance(),
+        event.imageUrl(),
+        event.address(),
+        event.categories(),
+        isFavorite);
+  }
+
   private Set<String> mapCategoriesToNames(Set<Category> categories) {
     if (categories == null) {
       return Set.of();
@@ -0,0 +1,109 @@
+package io.github.ziy1.nexevent.repository;
+
+import java.sql.Types;
+import java.util.*;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.util.GeoHashUtil;
+
+// Persists fetched Ticketmaster events with batched upserts instead of per-entity merges. Needs
+// rewriteBatchedStatements on the MySQL driver for each batch to become a multi-row statement.
+@Repository
+public class EventBulkRepository {
+  private static final String UPSERT_EVENT_SQL =
+      "INSERT INTO event (id, name, url, distance, image_url, address, latitude, longitude,"
+          + " geohash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)"
+          + " ON DUPLICATE KEY UPDATE name = VALUES(name), url = VALUES(url),"
+          + " distance = VALUES(distance), image_url = VALUES(image_url),"
+          + " address = VALUES(address), latitude = VALUES(latitude),"
+          + " longitude = VALUES(longitude), geohash = VALUES(geohash)";
+  private static final String INSERT_CATEGORY_SQL = "INSERT IGNORE INTO category (name) VALUES (?)";
+  private static final String SELECT_CATEGORY_IDS_SQL =
+      "SELECT id, name FROM category WHERE name IN (:names)";
+  private static final String INSERT_EVENT_CATEGORY_SQL =
+      "INSERT IGNORE INTO event_category (event_id, category_id) VALUES (?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+  public EventBulkRepository(
+      JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+  }
+
+  @Transactional
+  public void upsertAll(List<CachedEventDto> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+
+    Map<String, Long> categoryIds = upsertCategories(events);
+
+    jdbcTemplate.batchUpdate(
+        UPSERT_EVENT_SQL,
+        events,
+        events.size(),
+        (ps, event) -> {
+          ps.setString(1, event.id());
+          ps.setString(2, event.name());
+          ps.setString(3, event.url());
+          ps.setDouble(4, event.distance());
+          ps.setString(5, event.imageUrl());
+          ps.setString(6, event.address());
+          boolean located = event.latitude() != null && event.longitude() != null;
+          ps.setObject(7, event.latitude(), Types.DOUBLE);
+          ps.setObject(8, event.longitude(), Types.DOUBLE);
+          ps.setString(
+              9,
+              located
+                  ? GeoHashUtil.encodeGeohash(
+                      event.latitude(), event.longitude(), GeoHashUtil.MAX_PRECISION)
+                  : null);
+        });
+
+    // Existing links are kept, Ticketmaster does not move events between categories
+    List<Object[]> eventCategories = new ArrayList<>();
+    for (CachedEventDto event : events) {
+      for (String categoryName : categoriesOf(event)) {
+        Long categoryId = categoryIds.get(categoryName.toLowerCase(Locale.ROOT));
+        if (categoryId != null) {
+          eventCategories.add(new Object[] {event.id(), categoryId});
+        }
+      }
+    }
+    if (!eventCategories.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_EVENT_CATEGORY_SQL, eventCategories);
+    }
+  }
+
+  // Returns category ids keyed by lower-cased name, matching the case-insensitive unique name
+  private Map<String, Long> upsertCategories(List<CachedEventDto> events) {
+    Set<String> names = new LinkedHashSet<>();
+    events.forEach(event -> names.addAll(categoriesOf(event)));
+    if (names.isEmpty()) {
+      return Map.of();
+    }
+
+    jdbcTemplate.batchUpdate(
+        INSERT_CATEGORY_SQL, names.stream().map(name -> new Object[] {name}).toList());
+
+    Map<String, Long> categoryIds = new HashMap<>();
+    namedParameterJdbcTemplate.query(
+        SELECT_CATEGORY_IDS_SQL,
+        Map.of("names", names),
+        rs -> {
+          categoryIds.put(rs.getString("name").toLowerCase(Locale.ROOT), rs.getLong("id"));
+        });
+    return categoryIds;
+  }
+
+  private static Set<String> categoriesOf(CachedEventDto event) {
+    return event.categories() != null ? event.categories() : Set.of();
+  }
+}
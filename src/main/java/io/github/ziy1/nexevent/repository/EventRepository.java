@@ -1,5 +1,6 @@
 package io.github.ziy1.nexevent.repository;
 
+import java.util.List;
 import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,6 +13,9 @@ public interface EventRepository extends JpaRepository<Event, String> {
   @Query("SELECT e.id FROM User u JOIN u.favoriteEvents e WHERE u.id = :userId")
   Set<String> findFavoriteEventIdsByUserId(@Param("userId") String userId);
 
-  @Query("SELECT c.name FROM Event e JOIN e.categories c WHERE e.id = :eventId")
-  Set<String> findCategoriesByEventId(@Param("eventId") String eventId);
+  // Categories of the user's favorite events, most frequent first
+  @Query(
+      "SELECT c.name FROM User u JOIN u.favoriteEvents e JOIN e.categories c"
+          + " WHERE u.id = :userId GROUP BY c.name ORDER BY COUNT(e) DESC, c.name")
+  List<String> findFavoriteCategoryNamesByUserId(@Param("userId") String userId);
 }
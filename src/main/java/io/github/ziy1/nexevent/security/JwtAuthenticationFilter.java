@@ -2,6 +2,7 @@ package io.github.ziy1.nexevent.security;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -14,6 +15,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
+
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
   private final JwtTokenProvider jwtTokenProvider;
 
@@ -32,8 +35,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     if (token != null) {
       try {
-        if (jwtTokenProvider.validateToken(token)) {
-          String userId = jwtTokenProvider.getUserIdFromToken(token);
+        // One verification per request, usually answered from the provider's claims cache
+        Optional<Claims> claims = jwtTokenProvider.parseAndVerify(token);
+        if (claims.isPresent()) {
+          String userId = claims.get().getSubject();
 
           UsernamePasswordAuthenticationToken authentication =
               new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
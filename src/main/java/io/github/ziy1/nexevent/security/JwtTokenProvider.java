@@ -1,30 +1,65 @@
 package io.github.ziy1.nexevent.security;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
 import jakarta.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
+// The signing key and parser are built once. Verified claims are cached under a hash of the
+// token until the token expires, so a client reusing its token skips signature checking and JSON
+// parsing on every request after the first. Revocation is checked on every request, against the
+// in-memory mirror kept by TokenRevocationStore.
 @Component
 public class JwtTokenProvider {
-  private final Set<String> invalidatedTokens = ConcurrentHashMap.newKeySet();
+  private final TokenRevocationStore revocationStore;
+  private final SecretKey signingKey;
+  private final JwtParser parser;
+  private final int jwtExpirationInMs;
+  private final Cache<String, Claims> verifiedClaims;
 
-  @Value("${app.jwt.secret}")
-  private String jwtSecret;
+  public JwtTokenProvider(
+      @Value("${app.jwt.secret}") String jwtSecret,
+      @Value("${app.jwt.expiration:3600000}") int jwtExpirationInMs,
+      @Value("${app.jwt.cache.max-size:10000}") long claimsCacheMaxSize,
+      TokenRevocationStore revocationStore,
+      MeterRegistry meterRegistry) {
+    this.revocationStore = revocationStore;
+    this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    this.jwtExpirationInMs = jwtExpirationInMs;
+    this.verifiedClaims =
+        Caffeine.newBuilder()
+            .maximumSize(claimsCacheMaxSize)
+            .expireAfter(new UntilTokenExpiry())
+            .recordStats()
+            .build();
 
-  @Value("${app.jwt.expiration:3600000}")
-  private int jwtExpirationInMs;
+    CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwt.claims");
+  }
 
   public String generateToken(Authentication authentication) {
     String username = authentication.getName();
@@ -32,38 +67,48 @@ public class JwtTokenProvider {
     Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
     return Jwts.builder()
+        .setId(UUID.randomUUID().toString())
         .setSubject(username)
         .setIssuedAt(now)
         .setExpiration(expiryDate)
-        .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+        .signWith(signingKey)
         .compact();
   }
 
+  // Claims of a token with a valid signature that has not expired or been revoked, empty
+  // otherwise
+  public Optional<Claims> parseAndVerify(String token) {
+    if (token == null) {
+      return Optional.empty();
+    }
+
+    String tokenHash = hash(token);
+    Claims claims = verifiedClaims.getIfPresent(tokenHash);
+    if (claims == null) {
+      try {
+        claims = parser.parseClaimsJws(token).getBody();
+      } catch (JwtException | IllegalArgumentException e) {
+        return Optional.empty();
+      }
+      // Tokens without an expiry are verified every time rather than cached forever
+      if (claims.getExpiration() != null) {
+        verifiedClaims.put(tokenHash, claims);
+      }
+    }
+
+    return revocationStore.isRevoked(tokenId(claims, tokenHash))
+        ? Optional.empty()
+        : Optional.of(claims);
+  }
+
   public String getUserIdFromToken(String token) {
-    Claims claims =
-        Jwts.parserBuilder()
-            .setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
-
-    return claims.getSubject();
+    return parseAndVerify(token)
+        .map(Claims::getSubject)
+        .orElseThrow(() -> new JwtException("Invalid or expired token"));
   }
 
   public boolean validateToken(String token) {
-    if (invalidatedTokens.contains(token)) {
-      return false;
-    }
-
-    try {
-      Jwts.parserBuilder()
-          .setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
-          .build()
-          .parseClaimsJws(token);
-      return true;
-    } catch (JwtException | IllegalArgumentException e) {
-      return false;
-    }
+    return parseAndVerify(token).isPresent();
   }
 
   public String resolveToken(HttpServletRequest request) {
@@ -74,7 +119,53 @@ public class JwtTokenProvider {
     return null;
   }
 
+  // Revoked until the token's own expiry; expired or invalid tokens need nothing
   public void invalidateToken(String token) {
-    invalidatedTokens.add(token);
+    parseAndVerify(token)
+        .ifPresent(
+            claims -> {
+              String tokenHash = hash(token);
+              long expiresAt =
+                  claims.getExpiration() != null
+                      ? claims.getExpiration().getTime()
+                      : System.currentTimeMillis() + jwtExpirationInMs;
+              revocationStore.revoke(tokenId(claims, tokenHash), expiresAt);
+              verifiedClaims.invalidate(tokenHash);
+            });
+  }
+
+  // Tokens issued before they carried a jti are identified by their hash
+  private static String tokenId(Claims claims, String tokenHash) {
+    return claims.getId() != null ? claims.getId() : tokenHash;
+  }
+
+  // Keeps raw bearer tokens out of the cache
+  private static String hash(String token) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static class UntilTokenExpiry implements Expiry<String, Claims> {
+    @Override
+    public long expireAfterCreate(@NonNull String key, @NonNull Claims claims, long currentTime) {
+      long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        @NonNull String key, @NonNull Claims claims, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, claims, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        @NonNull String key, @NonNull Claims claims, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
   }
 }
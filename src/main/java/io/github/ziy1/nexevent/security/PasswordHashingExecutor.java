@@ -0,0 +1,112 @@
+package io.github.ziy1.nexevent.security;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+// Runs BCrypt-bound auth work (login, register) on its own small pool so a burst of logins queues
+// here instead of tying up Tomcat threads needed by every other endpoint. Work is rejected with
+// RejectedExecutionException when the queue is full, or when it waited longer than the queue
+// timeout before a thread picked it up, since its client has likely given up by then.
+@Component
+public class PasswordHashingExecutor {
+  private static final String EXECUTOR_NAME = "auth.hashing";
+
+  private final ThreadPoolExecutor executor;
+  private final long queueTimeoutNanos;
+  private final MeterRegistry meterRegistry;
+
+  public PasswordHashingExecutor(
+      @Value("${auth.hashing.threads:2}") int threads,
+      @Value("${auth.hashing.queue-size:50}") int queueSize,
+      @Value("${auth.hashing.queue-timeout-ms:2000}") long queueTimeoutMs,
+      MeterRegistry meterRegistry) {
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(queueSize),
+            task -> {
+              Thread thread = new Thread(task, "auth-hashing-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+    this.meterRegistry = meterRegistry;
+
+    new ExecutorServiceMetrics(executor, EXECUTOR_NAME, List.of()).bindTo(meterRegistry);
+  }
+
+  // Completes empty when the task returns null. Cancelling before a thread picks the task up
+  // skips it.
+  public <T> Mono<T> submit(String operation, Callable<T> task) {
+    return Mono.defer(
+        () -> {
+          long queuedAt = System.nanoTime();
+          CompletableFuture<T> result = new CompletableFuture<>();
+          try {
+            executor.execute(() -> run(operation, task, queuedAt, result));
+          } catch (RejectedExecutionException e) {
+            record(operation, "rejected", queuedAt);
+            return Mono.error(new RejectedExecutionException("Password hashing queue is full", e));
+          }
+          return Mono.fromFuture(result);
+        });
+  }
+
+  private <T> void run(
+      String operation, Callable<T> task, long queuedAt, CompletableFuture<T> result) {
+    if (result.isDone()) {
+      return;
+    }
+    if (System.nanoTime() - queuedAt > queueTimeoutNanos) {
+      record(operation, "rejected", queuedAt);
+      result.completeExceptionally(
+          new RejectedExecutionException("Timed out waiting for a password hashing thread"));
+      return;
+    }
+
+    try {
+      T value = task.call();
+      record(operation, value != null ? "success" : "refused", queuedAt);
+      result.complete(value);
+    } catch (Throwable e) {
+      record(operation, "error", queuedAt);
+      result.completeExceptionally(e);
+    }
+  }
+
+  // Includes the time spent queued; per-operation counts give login throughput
+  private void record(String operation, String outcome, long queuedAt) {
+    Timer.builder("auth.requests")
+        .tag("operation", operation)
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
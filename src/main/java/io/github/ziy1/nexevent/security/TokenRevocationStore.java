@@ -0,0 +1,158 @@
+package io.github.ziy1.nexevent.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Revoked token ids (jti), each kept only until its token would have expired anyway. Redis holds
+// the shared copy; every node mirrors it in memory, fed by pub/sub and a periodic rescan, so the
+// per-request check is a local lookup.
+@Slf4j
+@Lazy(false)
+@Component
+public class TokenRevocationStore implements MessageListener {
+  private static final String KEY_PREFIX = "auth:revoked:";
+  private static final String CHANNEL = "auth:revocations";
+  private static final String MESSAGE_SEPARATOR = "|";
+
+  private final ReactiveStringRedisTemplate stringRedisTemplate;
+  // Token id -> expiry (epoch ms)
+  private final Cache<String, Long> revoked =
+      Caffeine.newBuilder().expireAfter(new UntilTokenExpiry()).build();
+
+  @Value("${auth.revocation.redis-timeout-ms:1000}")
+  private long redisTimeoutMs;
+
+  public TokenRevocationStore(
+      ReactiveStringRedisTemplate stringRedisTemplate,
+      RedisMessageListenerContainer listenerContainer,
+      MeterRegistry meterRegistry) {
+    this.stringRedisTemplate = stringRedisTemplate;
+
+    Gauge.builder("auth.revoked.tokens", revoked, Cache::estimatedSize)
+        .description("Revoked tokens not yet expired, mirrored on this node")
+        .register(meterRegistry);
+
+    listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+  }
+
+  public boolean isRevoked(String tokenId) {
+    return revoked.getIfPresent(tokenId) != null;
+  }
+
+  // Applies locally right away; other nodes hear about it over pub/sub, or at their next rescan
+  // if the message is lost. Blocks for at most the Redis timeout.
+  public void revoke(String tokenId, long expiresAtMillis) {
+    long remainingMs = expiresAtMillis - System.currentTimeMillis();
+    if (remainingMs <= 0) {
+      return;
+    }
+    revoked.put(tokenId, expiresAtMillis);
+
+    stringRedisTemplate
+        .opsForValue()
+        .set(KEY_PREFIX + tokenId, String.valueOf(expiresAtMillis), Duration.ofMillis(remainingMs))
+        .then(
+            stringRedisTemplate.convertAndSend(
+                CHANNEL, tokenId + MESSAGE_SEPARATOR + expiresAtMillis))
+        .timeout(Duration.ofMillis(redisTimeoutMs))
+        .onErrorResume(
+            e -> {
+              log.warn("Token revocation only applied on this node: {}", e.getMessage());
+              return Mono.empty();
+            })
+        .block();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadOnStartup() {
+    rescan();
+  }
+
+  // Catches revocations whose pub/sub message was missed, e.g. while Redis was unreachable
+  @Scheduled(
+      fixedDelayString = "${auth.revocation.rescan-interval-ms:60000}",
+      initialDelayString = "${auth.revocation.rescan-interval-ms:60000}")
+  public void rescan() {
+    // Expired entries are otherwise only dropped as a side effect of cache activity
+    revoked.cleanUp();
+    stringRedisTemplate
+        .scan(ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(500).build())
+        .flatMap(
+            key ->
+                stringRedisTemplate
+                    .opsForValue()
+                    .get(key)
+                    .doOnNext(expiresAt -> add(key.substring(KEY_PREFIX.length()), expiresAt)),
+            16)
+        .count()
+        .subscribe(
+            count -> log.debug("Rescanned {} token revocations", count),
+            e -> log.warn("Failed to rescan token revocations: {}", e.getMessage()));
+  }
+
+  @Override
+  public void onMessage(@NonNull Message message, @Nullable byte[] pattern) {
+    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+    int separator = body.lastIndexOf(MESSAGE_SEPARATOR);
+    if (separator > 0) {
+      add(body.substring(0, separator), body.substring(separator + 1));
+    }
+  }
+
+  private void add(String tokenId, String expiresAt) {
+    try {
+      long expiresAtMillis = Long.parseLong(expiresAt);
+      if (expiresAtMillis > System.currentTimeMillis()) {
+        revoked.put(tokenId, expiresAtMillis);
+      }
+    } catch (NumberFormatException e) {
+      log.warn("Ignoring malformed revocation of {}: {}", tokenId, expiresAt);
+    }
+  }
+
+  private static class UntilTokenExpiry implements Expiry<String, Long> {
+    @Override
+    public long expireAfterCreate(@NonNull String key, @NonNull Long expiresAt, long currentTime) {
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - System.currentTimeMillis()));
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        @NonNull String key, @NonNull Long expiresAt, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, expiresAt, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        @NonNull String key, @NonNull Long expiresAt, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
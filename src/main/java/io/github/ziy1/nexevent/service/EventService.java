@@ -3,10 +3,12 @@ package io.github.ziy1.nexevent.service;
 import java.util.List;
 import java.util.Set;
 
+import reactor.core.publisher.Mono;
+
 import io.github.ziy1.nexevent.dto.EventDto;
 
 public interface EventService {
-  List<EventDto> searchNearByEvents(
+  Mono<List<EventDto>> searchNearByEventsReactive(
       String userId, Double latitude, Double longitude, String keyword);
 
   void setFavoriteEvent(String userId, String eventId);
@@ -15,5 +17,6 @@ public interface EventService {
 
   void unsetFavoriteEvent(String userId, String eventId);
 
-  List<EventDto> getRecommendedEvents(String userId, Double latitude, Double longitude);
+  Mono<List<EventDto>> getRecommendedEventsReactive(
+      String userId, Double latitude, Double longitude);
 }
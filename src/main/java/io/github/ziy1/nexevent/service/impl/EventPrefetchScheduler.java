@@ -0,0 +1,124 @@
+package io.github.ziy1.nexevent.service.impl;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import io.github.ziy1.nexevent.cache.HotKeyTracker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Keeps the most requested searches warm: every interval the top keys whose entry is missing or
+// about to pass its soft TTL are refetched, within a per-minute Ticketmaster request budget. A
+// search may take up to ticketmaster.paging.max-pages requests, so the budget is charged that
+// much per search. Prefetches go through the same rate limiter and daily quota as user searches.
+@Slf4j
+@Lazy(false)
+@Component
+public class EventPrefetchScheduler {
+  private final HotKeyTracker hotKeyTracker;
+  private final EventServiceImpl eventService;
+  private final Counter prefetches;
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  @Value("${cache.prefetch.enabled:true}")
+  private boolean enabled;
+
+  @Value("${cache.prefetch.top-k:50}")
+  private int topK;
+
+  // Ticketmaster requests, not searches
+  @Value("${cache.prefetch.budget-per-minute:30}")
+  private int budgetPerMinute;
+
+  @Value("${ticketmaster.paging.max-pages:3}")
+  private int maxPagesPerSearch;
+
+  @Value("${cache.prefetch.interval-ms:60000}")
+  private long intervalMs;
+
+  @Value("${cache.prefetch.concurrency:2}")
+  private int concurrency;
+
+  public EventPrefetchScheduler(
+      HotKeyTracker hotKeyTracker, EventServiceImpl eventService, MeterRegistry meterRegistry) {
+    this.hotKeyTracker = hotKeyTracker;
+    this.eventService = eventService;
+    this.prefetches =
+        Counter.builder("ticketmaster.events.prefetches")
+            .description("Upstream fetches made to keep hot searches warm")
+            .register(meterRegistry);
+  }
+
+  // Warm up from the hot set the cluster saved before this node started
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (!enabled) {
+      return;
+    }
+    hotKeyTracker
+        .loadHotSet()
+        .doOnNext(loaded -> log.info("Loaded {} hot event searches for warm-up", loaded))
+        .then(prefetchHotKeys())
+        .subscribe(null, e -> log.warn("Warm-up prefetch failed: {}", e.getMessage()));
+  }
+
+  @Scheduled(
+      fixedDelayString = "${cache.prefetch.interval-ms:60000}",
+      initialDelayString = "${cache.prefetch.interval-ms:60000}")
+  public void prefetch() {
+    if (!enabled) {
+      return;
+    }
+    // A slow round is left to finish rather than overlapped
+    if (!running.compareAndSet(false, true)) {
+      return;
+    }
+    hotKeyTracker.decay();
+    prefetchHotKeys()
+        .then(hotKeyTracker.saveHotSet())
+        .doFinally(signal -> running.set(false))
+        .subscribe(null, e -> log.warn("Prefetch round failed: {}", e.getMessage()));
+  }
+
+  private Mono<Void> prefetchHotKeys() {
+    long searches = searchesPerRound(budgetPerMinute, intervalMs, maxPagesPerSearch);
+    if (searches == 0) {
+      return Mono.empty();
+    }
+
+    return Flux.fromIterable(hotKeyTracker.top(topK))
+        .filterWhen(eventService::isPrefetchDue)
+        .take(searches)
+        .flatMap(
+            key ->
+                eventService
+                    .prefetch(key)
+                    .doOnSuccess(ignored -> prefetches.increment())
+                    .onErrorResume(
+                        e -> {
+                          log.warn("Prefetch failed for {}: {}", key, e.getMessage());
+                          return Mono.empty();
+                        }),
+            concurrency)
+        .then();
+  }
+
+  // The budget is per minute and spread over however many ticks fit in one, each search charged
+  // its worst case page count
+  static long searchesPerRound(int budgetPerMinute, long intervalMs, int maxPagesPerSearch) {
+    long requests = budgetPerMinute * intervalMs / 60_000;
+    return requests / Math.max(1, maxPagesPerSearch);
+  }
+}
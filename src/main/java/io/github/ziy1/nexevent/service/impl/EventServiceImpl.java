@@ -1,33 +1,43 @@
 package io.github.ziy1.nexevent.service.impl;
 
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import jakarta.annotation.PreDestroy;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import io.github.ziy1.nexevent.cache.HotKeyTracker;
+import io.github.ziy1.nexevent.cache.NearbyEventIndex;
+import io.github.ziy1.nexevent.cache.SingleFlightLoader;
+import io.github.ziy1.nexevent.cache.TicketMasterEventCache;
 import io.github.ziy1.nexevent.client.TicketMasterApiClient;
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.dto.CachedEventsDto;
 import io.github.ziy1.nexevent.dto.EventDto;
-import io.github.ziy1.nexevent.dto.TicketMasterApiResponseDto;
-import io.github.ziy1.nexevent.entity.Category;
+import io.github.ziy1.nexevent.dto.TicketMasterEventPageDto;
 import io.github.ziy1.nexevent.entity.Event;
 import io.github.ziy1.nexevent.entity.User;
+import io.github.ziy1.nexevent.exception.TicketMasterUnavailableException;
 import io.github.ziy1.nexevent.mapper.EventMapper;
-import io.github.ziy1.nexevent.repository.CategoryRepository;
 import io.github.ziy1.nexevent.repository.EventRepository;
 import io.github.ziy1.nexevent.repository.UserRepository;
 import io.github.ziy1.nexevent.service.EventService;
+import io.github.ziy1.nexevent.util.GeoDistanceUtil;
 import io.github.ziy1.nexevent.util.GeoHashUtil;
-import io.github.ziy1.nexevent.util.StreamUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @Slf4j
 @Service
@@ -35,147 +45,388 @@ public class EventServiceImpl implements EventService {
   private final TicketMasterApiClient ticketMasterApiClient;
   private final UserRepository userRepository;
   private final EventRepository eventRepository;
-  private final CategoryRepository categoryRepository;
+  private final EventWriteBehindQueue eventWriteBehindQueue;
   private final EventMapper eventMapper;
-  private final RedisTemplate<String, Object> redisTemplate;
-
-  private static final String CACHE_PREFIX = "ticketmaster:events:";
+  private final TicketMasterEventCache eventCache;
+  private final SingleFlightLoader singleFlightLoader;
+  private final NearbyEventIndex nearbyEventIndex;
+  private final HotKeyTracker hotKeyTracker;
 
   @Value("${ticketmaster.default-keyword:}")
   private String defaultKeyword;
 
+  // Precision of the geohash sent to Ticketmaster
   @Value("${geo.hash.precision:6}")
   private int geoHashPrecision;
 
-  @Value("${cache.ttl:3600}")
-  private long cacheTtl;
+  // Coarser precision cache keys are quantized to, so nearby users share an entry
+  @Value("${geo.hash.cache-precision:5}")
+  private int cacheGeoHashPrecision;
+
+  @Value("${geo.hash.neighbor-probe:true}")
+  private boolean neighborProbeEnabled;
+
+  // Ticketmaster search radius in miles, also applied to local index lookups
+  @Value("${ticketmaster.default-radius:50}")
+  private double searchRadiusMiles;
+
+  // Hot keys are refetched this long before their soft TTL
+  @Value("${cache.prefetch.lead-time:300}")
+  private long prefetchLeadTime;
 
-  @Value("${executor.thread.pool.size:2}")
-  private int threadPoolSize;
+  @Value("${events.index.enabled:true}")
+  private boolean localIndexEnabled;
 
-  @Value("${executor.core.pool.size:1}")
-  private int corePoolSize;
+  // Same cap as a search answered from the cache or Ticketmaster
+  @Value("${events.index.max-results:${ticketmaster.paging.max-events:150}}")
+  private int localIndexMaxResults;
 
-  @Value("${executor.queue.size:10}")
-  private int queueSize;
+  @Value("${cache.ttl:3600}")
+  private long cacheTtl;
+
+  // How long past cache.ttl an entry may still be served while it is being refreshed
+  @Value("${cache.stale-ttl:21600}")
+  private long cacheStaleTtl;
 
-  @Value("${executor.keep.alive.time:60}")
-  private long keepAliveTime;
+  // XFetch beta: 0 disables early refresh, larger values refresh earlier
+  @Value("${cache.early-refresh.beta:1.0}")
+  private double earlyRefreshBeta;
 
   @Value("${executor.shutdown.timeout:60}")
   private long shutdownTimeout;
 
+  // Upstream category searches in flight at once for a recommendation request
+  @Value("${recommend.concurrency:4}")
+  private int recommendConcurrency;
+
+  // Per-category search timeout and overall budget for a recommendation request
+  @Value("${recommend.category-timeout-ms:2000}")
+  private long recommendCategoryTimeoutMs;
+
+  @Value("${recommend.deadline-ms:3000}")
+  private long recommendDeadlineMs;
+
+  // Stop waiting on remaining categories once this many distinct events are collected
+  @Value("${recommend.max-events:100}")
+  private int recommendMaxEvents;
+
   private final ExecutorService executorService;
+  // Runs blocking JPA work off the reactive pipeline
+  private final Scheduler blockingScheduler;
+  private final Set<String> refreshingKeys = ConcurrentHashMap.newKeySet();
+
+  private final Timer favoriteIdsQueryTimer;
+  private final Timer favoriteCategoriesQueryTimer;
+  private final Timer recommendTimer;
 
   public EventServiceImpl(
       TicketMasterApiClient ticketMasterApiClient,
       UserRepository userRepository,
       EventRepository eventRepository,
-      CategoryRepository categoryRepository,
+      EventWriteBehindQueue eventWriteBehindQueue,
       EventMapper eventMapper,
-      RedisTemplate<String, Object> redisTemplate,
-      ExecutorService executorService) {
+      TicketMasterEventCache eventCache,
+      SingleFlightLoader singleFlightLoader,
+      NearbyEventIndex nearbyEventIndex,
+      HotKeyTracker hotKeyTracker,
+      ExecutorService executorService,
+      MeterRegistry meterRegistry) {
     this.ticketMasterApiClient = ticketMasterApiClient;
     this.userRepository = userRepository;
     this.eventRepository = eventRepository;
-    this.categoryRepository = categoryRepository;
+    this.eventWriteBehindQueue = eventWriteBehindQueue;
     this.eventMapper = eventMapper;
-    this.redisTemplate = redisTemplate;
+    this.eventCache = eventCache;
+    this.singleFlightLoader = singleFlightLoader;
+    this.nearbyEventIndex = nearbyEventIndex;
+    this.hotKeyTracker = hotKeyTracker;
     this.executorService = executorService;
+    this.blockingScheduler = Schedulers.fromExecutorService(executorService, "event-service");
+    this.favoriteIdsQueryTimer = favoritesQueryTimer(meterRegistry, "event_ids");
+    this.favoriteCategoriesQueryTimer = favoritesQueryTimer(meterRegistry, "category_names");
+    this.recommendTimer =
+        Timer.builder("events.recommend")
+            .description("Recommendation category fan-out, from first search to merged result")
+            .register(meterRegistry);
+  }
+
+  // Time spent in the database, not waiting for the executor (see executor.queued)
+  private static Timer favoritesQueryTimer(MeterRegistry registry, String query) {
+    return Timer.builder("events.favorites.query").tag("query", query).register(registry);
   }
 
   @Override
-  public List<EventDto> searchNearByEvents(
+  public Mono<List<EventDto>> searchNearByEventsReactive(
       String userId, Double latitude, Double longitude, String keyword) {
+    return findEvents(latitude, longitude, keyword)
+        .flatMap(events -> toEventDtosWithUserFavorites(events, userId))
+        .defaultIfEmpty(List.of());
+  }
+
+  // Results are cached per coarse geohash cell and keyword, with distances recomputed for the
+  // caller's own coordinates
+  private Mono<CachedEventsDto> findEvents(Double latitude, Double longitude, String keyword) {
     String geoHash = GeoHashUtil.encodeGeohash(latitude, longitude, geoHashPrecision);
-    String cacheKey = generateCacheKey(geoHash, keyword);
+    long cacheCell = GeoHashUtil.encode(latitude, longitude, cacheGeoHashPrecision);
+    String cacheCellHash = GeoHashUtil.toBase32(cacheCell, cacheGeoHashPrecision);
+    String cacheKey = generateCacheKey(cacheCellHash, keyword);
+    hotKeyTracker.record(new HotKeyTracker.HotKey(cacheCellHash, resolveKeyword(keyword)));
+
+    // Fetch from cache, serving stale entries while a background refresh runs
+    return eventCache
+        .get(cacheKey)
+        .doOnNext(
+            events -> {
+              if (shouldRefresh(events)) {
+                refreshInBackground(cacheKey, geoHash, keyword);
+              }
+            })
+        // Events this node fetched recently around here, then an adjacent cell's fetch, which
+        // covers nearly the same area at Ticketmaster's search radius
+        .switchIfEmpty(findInLocalIndex(latitude, longitude, keyword))
+        .switchIfEmpty(findInNeighborCells(cacheCell, keyword, false))
+        // Coalesce concurrent misses on this key into a single upstream call
+        .switchIfEmpty(
+            singleFlightLoader.load(
+                cacheKey,
+                eventCache.get(cacheKey),
+                fetchAndStoreEvents(cacheKey, geoHash, keyword)))
+        // Ticketmaster throttled or down: an adjacent cell's entry, however old, beats nothing
+        .onErrorResume(
+            TicketMasterUnavailableException.class,
+            e -> {
+              log.warn("Ticketmaster unavailable for {}: {}", cacheKey, e.getMessage());
+              return findInNeighborCells(cacheCell, keyword, true);
+            })
+        .map(events -> withDistancesFrom(events, latitude, longitude, searchRadiusMiles));
+  }
 
-    // Fetch from cache
-    TicketMasterApiResponseDto cachedResponse = getEventsFromCache(cacheKey);
-    if (cachedResponse != null) {
-      return toEventDtosWithUserFavorites(cachedResponse, userId);
+  private Mono<CachedEventsDto> findInLocalIndex(
+      double latitude, double longitude, String keyword) {
+    if (!localIndexEnabled) {
+      return Mono.empty();
     }
 
-    // Call Ticketmaster API
-    TicketMasterApiResponseDto apiResponse =
-        ticketMasterApiClient.searchNearByEvents(geoHash, keyword);
+    return Mono.fromSupplier(
+            () ->
+                nearbyEventIndex
+                    .findNearby(
+                        resolveKeyword(keyword),
+                        latitude,
+                        longitude,
+                        searchRadiusMiles,
+                        localIndexMaxResults)
+                    .map(events -> new CachedEventsDto(events, System.currentTimeMillis(), 0L))
+                    .orElse(null))
+        .filter(events -> !events.events().isEmpty());
+  }
 
-    // Store in cache and database
-    if (apiResponse != null) {
-      redisTemplate.opsForValue().set(cacheKey, apiResponse, cacheTtl, TimeUnit.SECONDS);
-      saveNearByEvents(toEventDtosWithUserFavorites(apiResponse, userId));
+  private Mono<CachedEventsDto> findInNeighborCells(
+      long cacheCell, String keyword, boolean allowStale) {
+    if (!neighborProbeEnabled) {
+      return Mono.empty();
     }
 
-    return toEventDtosWithUserFavorites(apiResponse, userId);
+    return Mono.defer(
+        () -> {
+          long[] neighborCells = new long[8];
+          GeoHashUtil.neighbors(cacheCell, cacheGeoHashPrecision, neighborCells);
+          List<String> neighborKeys =
+              Arrays.stream(neighborCells)
+                  .mapToObj(
+                      cell ->
+                          generateCacheKey(
+                              GeoHashUtil.toBase32(cell, cacheGeoHashPrecision), keyword))
+                  .distinct()
+                  .toList();
+
+          // Stale neighbors are normally left to their own refresh, a miss here fetches for this
+          // cell
+          return Flux.fromIterable(neighborKeys)
+              .flatMapSequential(
+                  key -> eventCache.get(key).filter(events -> allowStale || isFresh(events)))
+              .next();
+        });
   }
 
-  private String generateCacheKey(String geoHash, String keyword) {
-    return CACHE_PREFIX
-        + String.format(
-            "geo:%s:kw:%s",
-            geoHash, (keyword != null && !keyword.isEmpty()) ? keyword : defaultKeyword);
+  // The entry may have been fetched for another point, e.g. an adjacent cell's center, so events
+  // are re-sorted by distance from the caller and those now outside the search radius dropped;
+  // the same search then gives the same answer whichever entry served it
+  static CachedEventsDto withDistancesFrom(
+      CachedEventsDto cachedEvents, double latitude, double longitude, double radiusMiles) {
+    List<CachedEventDto> events = new ArrayList<>(cachedEvents.events().size());
+    for (CachedEventDto event : cachedEvents.events()) {
+      // Entries cached before venue coordinates were kept keep the fetcher's distance
+      if (event.latitude() == null || event.longitude() == null) {
+        events.add(event);
+        continue;
+      }
+      double distance =
+          GeoDistanceUtil.distanceMiles(latitude, longitude, event.latitude(), event.longitude());
+      if (distance > radiusMiles) {
+        continue;
+      }
+      events.add(
+          new CachedEventDto(
+              event.id(),
+              event.name(),
+              event.url(),
+              Math.round(distance * 100) / 100.0,
+              event.imageUrl(),
+              event.address(),
+              event.categories(),
+              event.latitude(),
+              event.longitude()));
+    }
+    events.sort(Comparator.comparingDouble(CachedEventDto::distance));
+    return new CachedEventsDto(events, cachedEvents.fetchedAt(), cachedEvents.fetchMillis());
+  }
+
+  // XFetch: refresh once past the soft TTL, and probabilistically somewhat before it, with the
+  // head start scaled by how long the upstream call took
+  private boolean shouldRefresh(CachedEventsDto events) {
+    long softExpiry = softExpiry(events);
+    double earlyBy =
+        -events.fetchMillis()
+            * earlyRefreshBeta
+            * Math.log(ThreadLocalRandom.current().nextDouble());
+    return System.currentTimeMillis() + earlyBy >= softExpiry;
+  }
+
+  private boolean isFresh(CachedEventsDto events) {
+    return System.currentTimeMillis() < softExpiry(events);
+  }
+
+  // A hot key needs prefetching when its entry is gone or within the lead time of its soft TTL
+  Mono<Boolean> isPrefetchDue(HotKeyTracker.HotKey key) {
+    long leadMillis = TimeUnit.SECONDS.toMillis(prefetchLeadTime);
+    return eventCache
+        .get(generateCacheKey(key.cell(), key.keyword()))
+        .map(events -> System.currentTimeMillis() + leadMillis >= softExpiry(events))
+        .defaultIfEmpty(true);
+  }
+
+  // Refetches a hot key from the center of its cell, unless another node got there first
+  Mono<Void> prefetch(HotKeyTracker.HotKey key) {
+    String cacheKey = generateCacheKey(key.cell(), key.keyword());
+    long cell = GeoHashUtil.fromBase32(key.cell());
+    String geoHash =
+        GeoHashUtil.encodeGeohash(
+            GeoHashUtil.decodeLatitude(cell, key.cell().length()),
+            GeoHashUtil.decodeLongitude(cell, key.cell().length()),
+            geoHashPrecision);
+    long leadMillis = TimeUnit.SECONDS.toMillis(prefetchLeadTime);
+
+    return singleFlightLoader
+        .load(
+            cacheKey,
+            eventCache
+                .get(cacheKey)
+                .filter(events -> System.currentTimeMillis() + leadMillis < softExpiry(events)),
+            fetchAndStoreEvents(cacheKey, geoHash, key.keyword()))
+        .then();
+  }
+
+  private long softExpiry(CachedEventsDto events) {
+    return events.fetchedAt() + TimeUnit.SECONDS.toMillis(cacheTtl);
   }
 
-  private TicketMasterApiResponseDto getEventsFromCache(String cacheKey) {
-    Object cachedValue = redisTemplate.opsForValue().get(cacheKey);
-    if (cachedValue instanceof LinkedHashMap) {
-      ObjectMapper mapper = new ObjectMapper();
-      mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-      return mapper.convertValue(cachedValue, TicketMasterApiResponseDto.class);
+  private void refreshInBackground(String cacheKey, String geoHash, String keyword) {
+    if (!refreshingKeys.add(cacheKey)) {
+      return;
     }
-    return null;
+
+    singleFlightLoader
+        .load(
+            cacheKey,
+            // Only another node's completed refresh counts as done
+            eventCache.get(cacheKey).filter(this::isFresh),
+            fetchAndStoreEvents(cacheKey, geoHash, keyword))
+        .doFinally(signal -> refreshingKeys.remove(cacheKey))
+        .subscribe(
+            events -> {},
+            e -> log.warn("Background refresh failed for {}: {}", cacheKey, e.getMessage()));
   }
 
-  private List<EventDto> toEventDtosWithUserFavorites(
-      TicketMasterApiResponseDto apiResponse, String userId) {
-    Set<String> userFavoriteEventIds = eventRepository.findFavoriteEventIdsByUserId(userId);
-
-    if (apiResponse != null && apiResponse.getEmbedded() != null) {
-      return apiResponse.getEmbedded().getEvents().stream()
-          .filter(StreamUtils.distinctByKey(TicketMasterApiResponseDto.Embedded.Event::getId))
-          .map(
-              event ->
-                  eventMapper.fromTicketMasterEvent(
-                      event, userFavoriteEventIds.contains(event.getId())))
-          .toList();
+  // Empty when Ticketmaster fails, so whatever is cached keeps being served until the hard TTL
+  private Mono<CachedEventsDto> fetchAndStoreEvents(
+      String cacheKey, String geoHash, String keyword) {
+    return Mono.defer(
+        () -> {
+          // Call Ticketmaster API
+          long startTime = System.currentTimeMillis();
+          return ticketMasterApiClient
+              .searchNearByEventPages(geoHash, keyword)
+              .collectList()
+              // No pages means the search failed, keep whatever is cached
+              .filter(pages -> !pages.isEmpty())
+              .map(
+                  pages -> toCachedEvents(pages, startTime, System.currentTimeMillis() - startTime))
+              // Store in cache, and queue the database write so it stays off the response path
+              .flatMap(
+                  fetchedEvents ->
+                      eventCache
+                          .put(cacheKey, fetchedEvents, cacheTtl + cacheStaleTtl)
+                          .doOnSuccess(
+                              stored -> {
+                                eventWriteBehindQueue.enqueue(fetchedEvents.events());
+                                indexFetchedEvents(geoHash, keyword, fetchedEvents);
+                              })
+                          .thenReturn(fetchedEvents));
+        });
+  }
+
+  private void indexFetchedEvents(String geoHash, String keyword, CachedEventsDto fetchedEvents) {
+    if (!localIndexEnabled) {
+      return;
     }
+    // The upstream geohash is fine enough to stand in for the point that was searched
+    long searchedCell = GeoHashUtil.fromBase32(geoHash);
+    nearbyEventIndex.add(
+        resolveKeyword(keyword),
+        GeoHashUtil.decodeLatitude(searchedCell, geoHash.length()),
+        GeoHashUtil.decodeLongitude(searchedCell, geoHash.length()),
+        fetchedEvents);
+  }
+
+  private String generateCacheKey(String geoHash, String keyword) {
+    return TicketMasterEventCache.KEY_PREFIX
+        + String.format("geo:%s:kw:%s", geoHash, resolveKeyword(keyword));
+  }
+
+  private String resolveKeyword(String keyword) {
+    return (keyword != null && !keyword.isEmpty()) ? keyword : defaultKeyword;
+  }
 
-    return List.of();
+  private CachedEventsDto toCachedEvents(
+      List<TicketMasterEventPageDto> pages, long fetchedAt, long fetchMillis) {
+    // Pages come back already deduplicated against each other
+    return new CachedEventsDto(
+        pages.stream().flatMap(page -> page.events().stream()).toList(), fetchedAt, fetchMillis);
   }
 
-  private void saveNearByEvents(List<EventDto> eventDtos) {
-    Map<String, Category> categoryCache = new HashMap<>();
-
-    // Create or reuse categories
-    for (EventDto eventDto : eventDtos) {
-      eventDto
-          .categories()
-          .forEach(
-              categoryName -> {
-                categoryCache.computeIfAbsent(
-                    categoryName,
-                    name ->
-                        categoryRepository
-                            .findByNameIgnoreCase(name)
-                            .orElseGet(
-                                () -> categoryRepository.save(new Category(null, name, null))));
-              });
+  private Mono<List<EventDto>> toEventDtosWithUserFavorites(
+      CachedEventsDto cachedEvents, String userId) {
+    if (cachedEvents.events().isEmpty()) {
+      return Mono.just(List.of());
     }
 
-    // Batch save events
-    List<Event> events =
-        eventDtos.stream()
-            .map(
-                dto -> {
-                  Event event = eventMapper.toEntity(dto);
-                  Set<Category> categories =
-                      dto.categories().stream().map(categoryCache::get).collect(Collectors.toSet());
-                  event.setCategories(categories);
-                  return event;
-                })
-            .toList();
-
-    eventRepository.saveAll(events);
+    return findFavoriteEventIds(userId)
+        .map(userFavoriteEventIds -> toEventDtos(cachedEvents, userFavoriteEventIds));
+  }
+
+  private List<EventDto> toEventDtos(CachedEventsDto cachedEvents, Set<String> favoriteEventIds) {
+    return cachedEvents.events().stream()
+        .map(event -> eventMapper.fromCachedEvent(event, favoriteEventIds.contains(event.id())))
+        .toList();
+  }
+
+  private Mono<Set<String>> findFavoriteEventIds(String userId) {
+    return Mono.fromCallable(
+            () ->
+                favoriteIdsQueryTimer.recordCallable(
+                    () -> eventRepository.findFavoriteEventIdsByUserId(userId)))
+        .subscribeOn(blockingScheduler);
   }
 
   @Override
@@ -184,6 +435,8 @@ public class EventServiceImpl implements EventService {
         userRepository
             .findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+    // The event may have been shown from the cache before the write-behind queue persisted it
+    eventWriteBehindQueue.persistNow(eventId);
     Event favoriteEvent =
         eventRepository
             .findById(eventId)
@@ -212,69 +465,94 @@ public class EventServiceImpl implements EventService {
         userRepository
             .findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-    Event favoriteEvent =
-        eventRepository
-            .findById(eventId)
-            .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
-    user.getFavoriteEvents().remove(favoriteEvent);
-    userRepository.save(user);
+    // An event that was never persisted cannot be a favorite, so there is nothing to remove
+    eventRepository
+        .findById(eventId)
+        .ifPresent(
+            favoriteEvent -> {
+              user.getFavoriteEvents().remove(favoriteEvent);
+              userRepository.save(user);
+            });
   }
 
   @Override
-  public List<EventDto> getRecommendedEvents(String userId, Double latitude, Double longitude) {
-    // Step 1: Get favorite event IDs
-    Set<String> favoriteEventIds = eventRepository.findFavoriteEventIdsByUserId(userId);
-
-    // Step 2: Get and sort categories by favorite event occurrence
-    List<String> sortedCategories = getSortedCategoriesByFavorites(favoriteEventIds);
+  public Mono<List<EventDto>> getRecommendedEventsReactive(
+      String userId, Double latitude, Double longitude) {
+    // Step 1: Get favorite event IDs and categories sorted by favorite event occurrence
+    return Mono.zip(findFavoriteEventIds(userId), findFavoriteCategoryNames(userId))
+        // Step 2: Search based on sorted category, filter out favorite events, sort by distance
+        .flatMap(
+            favorites ->
+                fetchAndProcessEvents(latitude, longitude, favorites.getT2(), favorites.getT1()));
+  }
 
-    // Step 3: Search based on sorted category, filter out favorite events, sort by distance
-    return fetchAndProcessEvents(userId, latitude, longitude, sortedCategories);
+  private Mono<List<String>> findFavoriteCategoryNames(String userId) {
+    return Mono.fromCallable(
+            () ->
+                favoriteCategoriesQueryTimer.recordCallable(
+                    () -> eventRepository.findFavoriteCategoryNamesByUserId(userId)))
+        .subscribeOn(blockingScheduler);
   }
 
-  private List<String> getSortedCategoriesByFavorites(Set<String> favoriteEventIds) {
-    Map<String, Integer> categoryCounts = new HashMap<>();
-    for (String eventId : favoriteEventIds) {
-      Set<String> categories = eventRepository.findCategoriesByEventId(eventId);
-      for (String category : categories) {
-        categoryCounts.put(category, categoryCounts.getOrDefault(category, 0) + 1);
-      }
-    }
-    return categoryCounts.entrySet().stream()
-        .sorted((a, b) -> b.getValue().compareTo(a.getValue())) // Descending order
-        .map(Map.Entry::getKey)
-        .toList();
+  private Mono<List<EventDto>> fetchAndProcessEvents(
+      Double latitude,
+      Double longitude,
+      List<String> sortedCategories,
+      Set<String> favoriteEventIds) {
+    Set<String> collectedEventIds = new HashSet<>();
+    Timer.Sample sample = Timer.start();
+
+    // Search categories concurrently and consume them as they complete. A category that misses
+    // its timeout or fails is skipped, and whatever is still running is cancelled at the overall
+    // deadline or once enough events are collected.
+    return Flux.range(0, sortedCategories.size())
+        .flatMap(
+            rank ->
+                findEvents(latitude, longitude, sortedCategories.get(rank))
+                    .timeout(Duration.ofMillis(recommendCategoryTimeoutMs))
+                    .map(
+                        events ->
+                            new RankedEvents(
+                                rank,
+                                toEventDtos(events, favoriteEventIds).stream()
+                                    .filter(eventDto -> !eventDto.favorite())
+                                    .toList()))
+                    .onErrorResume(
+                        e -> {
+                          log.warn(
+                              "Skipping category {} for recommendations: {}",
+                              sortedCategories.get(rank),
+                              e.toString());
+                          return Mono.empty();
+                        }),
+            recommendConcurrency)
+        .take(Duration.ofMillis(recommendDeadlineMs))
+        .takeUntil(
+            ranked -> {
+              ranked.events().forEach(eventDto -> collectedEventIds.add(eventDto.id()));
+              return collectedEventIds.size() >= recommendMaxEvents;
+            })
+        .collectList()
+        .map(this::mergeByCategoryRank)
+        .doFinally(signal -> sample.stop(recommendTimer));
   }
 
-  private List<EventDto> fetchAndProcessEvents(
-      String userId, Double latitude, Double longitude, List<String> sortedCategories) {
+  // Put completed categories back in rank order: closest first within a category, and an event
+  // listed under several categories stays with the highest ranked one
+  private List<EventDto> mergeByCategoryRank(List<RankedEvents> rankedEvents) {
     Set<String> seenEventIds = new HashSet<>();
-    List<Future<List<EventDto>>> futures = new ArrayList<>();
-
-    // Submit API calls to thread pool
-    for (String categoryName : sortedCategories) {
-      futures.add(
-          executorService.submit(
-              () -> searchNearByEvents(userId, latitude, longitude, categoryName)));
-    }
-
-    List<EventDto> recommendedEvents = new ArrayList<>();
-    for (Future<List<EventDto>> future : futures) {
-      try {
-        List<EventDto> eventDtos = future.get(); // Blocking until the result is available
-        eventDtos.stream()
-            .filter(eventDto -> !eventDto.favorite())
-            .filter(eventDto -> seenEventIds.add(eventDto.id()))
-            .sorted(Comparator.comparing(EventDto::distance))
-            .forEach(recommendedEvents::add);
-      } catch (Exception e) {
-        log.error("Error fetching events: {}", e.getMessage());
-      }
-    }
-
-    return recommendedEvents;
+    return rankedEvents.stream()
+        .sorted(Comparator.comparingInt(RankedEvents::rank))
+        .flatMap(
+            ranked ->
+                ranked.events().stream()
+                    .filter(eventDto -> seenEventIds.add(eventDto.id()))
+                    .sorted(Comparator.comparing(EventDto::distance)))
+        .toList();
   }
 
+  private record RankedEvents(int rank, List<EventDto> events) {}
+
   @PreDestroy
   public void shutdownExecutorService() {
     executorService.shutdown();
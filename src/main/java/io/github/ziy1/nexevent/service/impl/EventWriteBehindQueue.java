@@ -0,0 +1,257 @@
+package io.github.ziy1.nexevent.service.impl;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.repository.EventBulkRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Bounded write-behind buffer for fetched events, so a cache miss does not wait on MySQL. Events
+// are deduplicated by id until flushed (latest wins). A failed batch is queued again, up to
+// max-retries times per event. Events dropped because the queue is full, or that ran out of
+// retries, are kept for as long as the cache may still show them, so persistNow can write one
+// when a user favorites it.
+@Slf4j
+@Component
+public class EventWriteBehindQueue {
+  private final EventBulkRepository eventBulkRepository;
+  private final int capacity;
+  private final int batchSize;
+  private final int maxRetries;
+
+  // Insertion ordered so eviction and flushing go oldest first
+  private final LinkedHashMap<String, CachedEventDto> pending = new LinkedHashMap<>();
+  // Failed writes per pending event id, guarded by pending
+  private final Map<String, Integer> attempts = new HashMap<>();
+  // Fetched events that will not be flushed: dropped when full, or out of retries
+  private final Cache<String, CachedEventDto> unpersisted;
+  private final ScheduledExecutorService writer =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "event-write-behind");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+  private final Timer flushTimer;
+  private final Counter droppedEvents;
+  private final Counter failedEvents;
+
+  public EventWriteBehindQueue(
+      EventBulkRepository eventBulkRepository,
+      MeterRegistry meterRegistry,
+      @Value("${events.write-behind.capacity:1000}") int capacity,
+      @Value("${events.write-behind.batch-size:100}") int batchSize,
+      @Value("${events.write-behind.flush-interval-ms:1000}") long flushIntervalMs,
+      @Value("${events.write-behind.max-retries:3}") int maxRetries,
+      @Value("${events.write-behind.unpersisted.max-size:10000}") long unpersistedMaxSize,
+      // As long as a cached search, and so the events in it, may still be served
+      @Value("#{${cache.ttl:3600} + ${cache.stale-ttl:21600}}") long unpersistedTtlSeconds) {
+    this.eventBulkRepository = eventBulkRepository;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.maxRetries = maxRetries;
+    this.unpersisted =
+        Caffeine.newBuilder()
+            .maximumSize(unpersistedMaxSize)
+            .expireAfterWrite(unpersistedTtlSeconds, TimeUnit.SECONDS)
+            .build();
+
+    Gauge.builder("events.write-behind.queue.size", this, EventWriteBehindQueue::size)
+        .description("Fetched events waiting to be persisted")
+        .register(meterRegistry);
+    this.flushTimer =
+        Timer.builder("events.write-behind.flush")
+            .description("Time to persist one batch of fetched events")
+            .register(meterRegistry);
+    this.droppedEvents =
+        Counter.builder("events.write-behind.dropped")
+            .description("Events evicted before being persisted because the queue was full")
+            .register(meterRegistry);
+    this.failedEvents =
+        Counter.builder("events.write-behind.failed")
+            .description("Events given up on after their batch failed max-retries times")
+            .register(meterRegistry);
+
+    writer.scheduleWithFixedDelay(
+        this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  public void enqueue(List<CachedEventDto> events) {
+    int size;
+    synchronized (pending) {
+      for (CachedEventDto event : events) {
+        // Re-inserting moves the event to the back of the queue; a fresh copy gets fresh retries
+        pending.remove(event.id());
+        pending.put(event.id(), event);
+        attempts.remove(event.id());
+      }
+      evictOverCapacity();
+      size = pending.size();
+    }
+
+    if (size >= batchSize && flushRequested.compareAndSet(false, true)) {
+      writer.execute(this::flushQuietly);
+    }
+  }
+
+  public int size() {
+    synchronized (pending) {
+      return pending.size();
+    }
+  }
+
+  // Writes a fetched event that has not reached the database yet, e.g. one a user is about to
+  // favorite. Runs on the writer thread, so a batch already holding the event has committed by the
+  // time this returns. False when there was no such event to write.
+  public boolean persistNow(String eventId) {
+    try {
+      return writer.submit(() -> persistOne(eventId)).get(10, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException cause
+          ? cause
+          : new IllegalStateException("Failed to persist event " + eventId, e.getCause());
+    } catch (TimeoutException e) {
+      throw new IllegalStateException("Timed out persisting event " + eventId, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted persisting event " + eventId, e);
+    }
+  }
+
+  private boolean persistOne(String eventId) {
+    CachedEventDto event;
+    synchronized (pending) {
+      event = pending.remove(eventId);
+      attempts.remove(eventId);
+    }
+    if (event == null) {
+      event = unpersisted.getIfPresent(eventId);
+      if (event == null) {
+        return false;
+      }
+    }
+
+    List<CachedEventDto> batch = List.of(event);
+    try {
+      flushTimer.record(() -> eventBulkRepository.upsertAll(batch));
+    } catch (RuntimeException e) {
+      requeue(batch);
+      throw e;
+    }
+    unpersisted.invalidate(eventId);
+    return true;
+  }
+
+  private void flushQuietly() {
+    flushRequested.set(false);
+    try {
+      // Keep going while full batches are waiting
+      while (flushBatch() == batchSize) {}
+    } catch (RuntimeException e) {
+      // The batch is back in the queue; the next scheduled flush retries it
+      log.error("Write-behind flush failed: {}", e.getMessage());
+    }
+  }
+
+  private int flushBatch() {
+    List<CachedEventDto> batch = takeBatch();
+    if (batch.isEmpty()) {
+      return 0;
+    }
+
+    try {
+      flushTimer.record(() -> eventBulkRepository.upsertAll(batch));
+    } catch (RuntimeException e) {
+      requeue(batch);
+      throw e;
+    }
+    synchronized (pending) {
+      batch.forEach(event -> attempts.remove(event.id()));
+    }
+    return batch.size();
+  }
+
+  private List<CachedEventDto> takeBatch() {
+    synchronized (pending) {
+      List<CachedEventDto> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+      Iterator<CachedEventDto> oldest = pending.values().iterator();
+      while (oldest.hasNext() && batch.size() < batchSize) {
+        batch.add(oldest.next());
+        oldest.remove();
+      }
+      return batch;
+    }
+  }
+
+  // Back of the queue, unless a newer copy was enqueued meanwhile or retries are used up
+  private void requeue(List<CachedEventDto> batch) {
+    synchronized (pending) {
+      for (CachedEventDto event : batch) {
+        if (pending.containsKey(event.id())) {
+          continue;
+        }
+        int failures = attempts.merge(event.id(), 1, Integer::sum);
+        if (failures > maxRetries) {
+          attempts.remove(event.id());
+          failedEvents.increment();
+          unpersisted.put(event.id(), event);
+        } else {
+          pending.put(event.id(), event);
+        }
+      }
+      evictOverCapacity();
+    }
+  }
+
+  // Guarded by pending
+  private void evictOverCapacity() {
+    Iterator<CachedEventDto> oldest = pending.values().iterator();
+    while (pending.size() > capacity) {
+      CachedEventDto event = oldest.next();
+      oldest.remove();
+      attempts.remove(event.id());
+      unpersisted.put(event.id(), event);
+      droppedEvents.increment();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    writer.shutdown();
+    try {
+      writer.awaitTermination(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    // Drain what is left on the shutdown thread
+    try {
+      while (flushBatch() > 0) {}
+    } catch (RuntimeException e) {
+      log.error("Failed to flush {} pending events on shutdown: {}", size(), e.getMessage());
+    }
+    log.info("Event write-behind queue flushed.");
+  }
+}
@@ -3,15 +3,19 @@ package io.github.ziy1.nexevent.service.impl;
 import java.util.Collections;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import io.github.ziy1.nexevent.entity.User;
 import io.github.ziy1.nexevent.repository.UserRepository;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+// Also the password service, so the authentication provider stores a rehash after a successful
+// login when the encoder's cost has changed
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
   private final UserRepository userRepository;
 
   public UserDetailsServiceImpl(UserRepository userRepository) {
@@ -25,6 +29,24 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             .findById(userId)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
 
+    return toUserDetails(user);
+  }
+
+  @Override
+  @Transactional
+  public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+    User user =
+        userRepository
+            .findById(userDetails.getUsername())
+            .orElseThrow(
+                () ->
+                    new UsernameNotFoundException("User not found: " + userDetails.getUsername()));
+    user.setPassword(newPassword);
+
+    return toUserDetails(userRepository.save(user));
+  }
+
+  private static UserDetails toUserDetails(User user) {
     return new org.springframework.security.core.userdetails.User(
         user.getUserId(), user.getPassword(), Collections.emptyList());
   }
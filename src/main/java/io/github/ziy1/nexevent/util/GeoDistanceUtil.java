@@ -0,0 +1,20 @@
+package io.github.ziy1.nexevent.util;
+
+public class GeoDistanceUtil {
+  private static final double EARTH_RADIUS_MILES = 3958.8;
+  public static final double MILES_PER_DEGREE_LATITUDE = 69.05;
+
+  // Great-circle (haversine) distance, in miles like Ticketmaster's default unit
+  public static double distanceMiles(
+      double latitude1, double longitude1, double latitude2, double longitude2) {
+    double dLat = Math.toRadians(latitude2 - latitude1);
+    double dLon = Math.toRadians(longitude2 - longitude1);
+    double a =
+        Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(latitude1))
+                * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLon / 2)
+                * Math.sin(dLon / 2);
+    return 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1.0, Math.sqrt(a)));
+  }
+}
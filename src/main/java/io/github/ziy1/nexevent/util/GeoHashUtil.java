@@ -1,55 +1,243 @@
 package io.github.ziy1.nexevent.util;
 
+import java.util.Arrays;
+
 import org.springframework.stereotype.Component;
 
 @Component
 // Reference:
 // http://developer-should-know.com/post/87283491372/geohash-encoding-and-decoding-algorithm
+//
+// Geohashes are handled as longs holding 5 * precision interleaved bits, right aligned, with the
+// first (longitude) bit highest. Latitude and longitude are quantized to 30 bits each and
+// interleaved with bit spreading, so nothing but the final base32 string allocates.
 public class GeoHashUtil {
   private static final String BASE_32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+  private static final byte[] BASE_32_INDEX = new byte[128];
+
+  public static final int MAX_PRECISION = 12;
+  private static final int COORDINATE_BITS = 30;
+  private static final int HASH_BITS = 2 * COORDINATE_BITS;
+  private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
 
-  private static int divideRangeByValue(double value, double[] range) {
-    double mid = middle(range);
-    if (value >= mid) {
-      range[0] = mid;
-      return 1;
-    } else {
-      range[1] = mid;
-      return 0;
+  // Approximate length of one degree on the WGS84 ellipsoid
+  private static final double KM_PER_DEGREE_LATITUDE = 110.574;
+  private static final double KM_PER_DEGREE_LONGITUDE = 111.320;
+
+  static {
+    Arrays.fill(BASE_32_INDEX, (byte) -1);
+    for (int i = 0; i < BASE_32.length(); i++) {
+      BASE_32_INDEX[BASE_32.charAt(i)] = (byte) i;
     }
   }
 
-  private static double middle(double[] range) {
-    return (range[0] + range[1]) / 2;
+  public static String encodeGeohash(double latitude, double longitude, int precision) {
+    return toBase32(encode(latitude, longitude, precision), precision);
+  }
+
+  public static long encode(double latitude, double longitude, int precision) {
+    checkPrecision(precision);
+    long latBits = quantize(latitude, -90.0, 180.0);
+    long lonBits = quantize(longitude, -180.0, 360.0);
+    return ((spread(lonBits) << 1) | spread(latBits)) >>> (HASH_BITS - 5 * precision);
   }
 
-  public static String encodeGeohash(double latitude, double longitude, int precision) {
-    double[] latRange = new double[] {-90.0, 90.0};
-    double[] lonRange = new double[] {-180.0, 180.0};
-    boolean isEven = true;
-    int bit = 0;
-    int base32CharIndex = 0;
-    StringBuilder geohash = new StringBuilder();
-
-    while (geohash.length() < precision) {
-      if (isEven) {
-        base32CharIndex = (base32CharIndex << 1) | divideRangeByValue(longitude, lonRange);
-      } else {
-        base32CharIndex = (base32CharIndex << 1) | divideRangeByValue(latitude, latRange);
+  // Bulk variant over parallel arrays, hashes are written to out
+  public static void encode(double[] latitudes, double[] longitudes, int precision, long[] out) {
+    checkPrecision(precision);
+    int shift = HASH_BITS - 5 * precision;
+    for (int i = 0; i < latitudes.length; i++) {
+      long latBits = quantize(latitudes[i], -90.0, 180.0);
+      long lonBits = quantize(longitudes[i], -180.0, 360.0);
+      out[i] = ((spread(lonBits) << 1) | spread(latBits)) >>> shift;
+    }
+  }
+
+  public static String toBase32(long hash, int precision) {
+    char[] chars = new char[precision];
+    for (int i = precision - 1; i >= 0; i--) {
+      chars[i] = BASE_32.charAt((int) (hash & 0x1F));
+      hash >>>= 5;
+    }
+    return new String(chars);
+  }
+
+  public static long fromBase32(String geohash) {
+    checkPrecision(geohash.length());
+    long hash = 0;
+    for (int i = 0; i < geohash.length(); i++) {
+      char c = Character.toLowerCase(geohash.charAt(i));
+      int value = c < BASE_32_INDEX.length ? BASE_32_INDEX[c] : -1;
+      if (value < 0) {
+        throw new IllegalArgumentException("Invalid geohash: " + geohash);
       }
+      hash = (hash << 5) | value;
+    }
+    return hash;
+  }
 
-      isEven = !isEven;
+  // Cell center
+  public static double decodeLatitude(long hash, int precision) {
+    return minLatitude(hash, precision) + latitudeSpan(precision) / 2;
+  }
+
+  public static double decodeLongitude(long hash, int precision) {
+    return minLongitude(hash, precision) + longitudeSpan(precision) / 2;
+  }
+
+  // Bulk cell centers, written to latitudes/longitudes
+  public static void decode(long[] hashes, int precision, double[] latitudes, double[] longitudes) {
+    for (int i = 0; i < hashes.length; i++) {
+      latitudes[i] = decodeLatitude(hashes[i], precision);
+      longitudes[i] = decodeLongitude(hashes[i], precision);
+    }
+  }
+
+  // Writes {minLat, maxLat, minLon, maxLon} of the cell to box
+  public static void boundingBox(long hash, int precision, double[] box) {
+    box[0] = minLatitude(hash, precision);
+    box[1] = box[0] + latitudeSpan(precision);
+    box[2] = minLongitude(hash, precision);
+    box[3] = box[2] + longitudeSpan(precision);
+  }
 
-      if (bit < 4) {
-        bit++;
-      } else {
-        geohash.append(BASE_32.charAt(base32CharIndex));
-        bit = 0;
-        base32CharIndex = 0;
+  public static double minLatitude(long hash, int precision) {
+    return latitudeIndex(hash, precision) * latitudeSpan(precision) - 90.0;
+  }
+
+  public static double minLongitude(long hash, int precision) {
+    return longitudeIndex(hash, precision) * longitudeSpan(precision) - 180.0;
+  }
+
+  public static double latitudeSpan(int precision) {
+    return Math.scalb(180.0, -latitudeBitCount(precision));
+  }
+
+  public static double longitudeSpan(int precision) {
+    return Math.scalb(360.0, -longitudeBitCount(precision));
+  }
+
+  // Cell offset by whole cells; longitude wraps around, latitude is clamped at the poles
+  public static long neighbor(long hash, int precision, int latitudeStep, int longitudeStep) {
+    int latCount = latitudeBitCount(precision);
+    int lonCount = longitudeBitCount(precision);
+    long latMax = (1L << latCount) - 1;
+    long lonCells = 1L << lonCount;
+
+    long latIndex = Math.max(0, Math.min(latMax, latitudeIndex(hash, precision) + latitudeStep));
+    long lonIndex = Math.floorMod(longitudeIndex(hash, precision) + longitudeStep, lonCells);
+
+    long interleaved =
+        (spread(lonIndex << (COORDINATE_BITS - lonCount)) << 1)
+            | spread(latIndex << (COORDINATE_BITS - latCount));
+    return interleaved >>> (HASH_BITS - 5 * precision);
+  }
+
+  // Writes the 8 surrounding cells to out, clockwise from north
+  public static void neighbors(long hash, int precision, long[] out) {
+    out[0] = neighbor(hash, precision, 1, 0);
+    out[1] = neighbor(hash, precision, 1, 1);
+    out[2] = neighbor(hash, precision, 0, 1);
+    out[3] = neighbor(hash, precision, -1, 1);
+    out[4] = neighbor(hash, precision, -1, 0);
+    out[5] = neighbor(hash, precision, -1, -1);
+    out[6] = neighbor(hash, precision, 0, -1);
+    out[7] = neighbor(hash, precision, 1, -1);
+  }
+
+  // Longest precision whose cells are at least radiusKm on each side near this latitude, so the
+  // cell containing a point plus its 8 neighbors cover the circle around it
+  public static int precisionForRadius(double latitude, double radiusKm) {
+    double farthestLatitude =
+        Math.min(89.9, Math.abs(latitude) + radiusKm / KM_PER_DEGREE_LATITUDE);
+    double lonKmPerDegree = KM_PER_DEGREE_LONGITUDE * Math.cos(Math.toRadians(farthestLatitude));
+
+    for (int precision = MAX_PRECISION; precision > 1; precision--) {
+      if (latitudeSpan(precision) * KM_PER_DEGREE_LATITUDE >= radiusKm
+          && longitudeSpan(precision) * lonKmPerDegree >= radiusKm) {
+        return precision;
       }
     }
+    return 1;
+  }
+
+  // Writes the distinct prefixes at precisionForRadius(latitude, radiusKm) that cover the circle
+  // to out (at least 9 long) and returns how many were written
+  public static int coverRadius(double latitude, double longitude, double radiusKm, long[] out) {
+    int precision = precisionForRadius(latitude, radiusKm);
+    long center = encode(latitude, longitude, precision);
+
+    out[0] = center;
+    int count = 1;
+    for (int latStep = -1; latStep <= 1; latStep++) {
+      for (int lonStep = -1; lonStep <= 1; lonStep++) {
+        if (latStep == 0 && lonStep == 0) {
+          continue;
+        }
+        long cell = neighbor(center, precision, latStep, lonStep);
+        // Neighbors collapse at the poles and at precision 1
+        boolean seen = false;
+        for (int i = 0; i < count && !seen; i++) {
+          seen = out[i] == cell;
+        }
+        if (!seen) {
+          out[count++] = cell;
+        }
+      }
+    }
+    return count;
+  }
+
+  private static void checkPrecision(int precision) {
+    if (precision < 1 || precision > MAX_PRECISION) {
+      throw new IllegalArgumentException("Geohash precision must be 1-12: " + precision);
+    }
+  }
+
+  private static long quantize(double value, double min, double span) {
+    long bits = (long) Math.floor((value - min) / span * (1L << COORDINATE_BITS));
+    return Math.max(0, Math.min(COORDINATE_MASK, bits));
+  }
+
+  // Longitude takes the extra bit when 5 * precision is odd
+  private static int longitudeBitCount(int precision) {
+    return (5 * precision + 1) / 2;
+  }
+
+  private static int latitudeBitCount(int precision) {
+    return 5 * precision / 2;
+  }
+
+  private static long latitudeIndex(long hash, int precision) {
+    long aligned = hash << (HASH_BITS - 5 * precision);
+    return compact(aligned) >>> (COORDINATE_BITS - latitudeBitCount(precision));
+  }
+
+  private static long longitudeIndex(long hash, int precision) {
+    long aligned = hash << (HASH_BITS - 5 * precision);
+    return compact(aligned >>> 1) >>> (COORDINATE_BITS - longitudeBitCount(precision));
+  }
+
+  // Moves bit i of a 30 bit value to bit 2i
+  private static long spread(long value) {
+    long x = value & COORDINATE_MASK;
+    x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+    x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+    x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+    x = (x | (x << 2)) & 0x3333333333333333L;
+    x = (x | (x << 1)) & 0x5555555555555555L;
+    return x;
+  }
 
-    return geohash.toString();
+  // Inverse of spread: gathers the even bits back into a 30 bit value
+  private static long compact(long value) {
+    long x = value & 0x5555555555555555L;
+    x = (x | (x >>> 1)) & 0x3333333333333333L;
+    x = (x | (x >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+    x = (x | (x >>> 4)) & 0x00FF00FF00FF00FFL;
+    x = (x | (x >>> 8)) & 0x0000FFFF0000FFFFL;
+    x = (x | (x >>> 16)) & 0x00000000FFFFFFFFL;
+    return x;
   }
 
   public static void main(String[] args) {
@@ -0,0 +1,98 @@
+package io.github.ziy1.nexevent.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import reactor.core.publisher.Flux;
+
+import io.github.ziy1.nexevent.client.TicketMasterEventStreamDecoder;
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.dto.TicketMasterApiResponseDto;
+import io.github.ziy1.nexevent.mapper.EventMapper;
+import io.github.ziy1.nexevent.util.IdNormalizerUtil;
+
+// The JMH sources only compile under -Pbenchmark, so this checks in the default build that the
+// recorded payload they share still binds, and that the decode paths they compare agree on it
+class BenchmarkFixturesTest {
+  private static final Path TICKETMASTER_EVENTS =
+      Path.of("src/jmh/resources/fixtures/ticketmaster-events.json");
+
+  private static byte[] payload;
+  private static List<CachedEventDto> boundEvents;
+
+  @BeforeAll
+  static void bindFixture() throws IOException {
+    payload = Files.readAllBytes(TICKETMASTER_EVENTS);
+    ObjectMapper mapper =
+        new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    TicketMasterApiResponseDto response =
+        mapper.readValue(payload, TicketMasterApiResponseDto.class);
+    EventMapper eventMapper = new EventMapper();
+    boundEvents =
+        response.getEmbedded().getEvents().stream().map(eventMapper::toCachedEvent).toList();
+  }
+
+  private static List<CachedEventDto> streamDecode(int chunkSize) {
+    DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    Flux<DataBuffer> body =
+        Flux.fromStream(
+            IntStream.iterate(0, offset -> offset < payload.length, offset -> offset + chunkSize)
+                .mapToObj(
+                    offset ->
+                        bufferFactory.wrap(
+                            Arrays.copyOfRange(
+                                payload, offset, Math.min(payload.length, offset + chunkSize)))));
+    return new TicketMasterEventStreamDecoder().decode(body).block().events();
+  }
+
+  @Test
+  void fixtureIsARealisticPage() {
+    assertThat(boundEvents).hasSizeGreaterThanOrEqualTo(20);
+    assertThat(boundEvents)
+        .allSatisfy(
+            event -> {
+              assertThat(event.id()).isNotBlank();
+              assertThat(event.categories()).isNotEmpty();
+              assertThat(event.latitude()).isNotNull();
+              assertThat(event.longitude()).isNotNull();
+            });
+  }
+
+  @Test
+  void streamingDecoderMatchesBindAndMap() {
+    // Bind and map leaves ids as Ticketmaster sent them, the client used to normalize afterwards
+    List<CachedEventDto> expected =
+        boundEvents.stream()
+            .map(
+                event ->
+                    new CachedEventDto(
+                        IdNormalizerUtil.normalize(event.id()),
+                        event.name(),
+                        event.url(),
+                        event.distance(),
+                        event.imageUrl(),
+                        event.address(),
+                        event.categories(),
+                        event.latitude(),
+                        event.longitude()))
+            .toList();
+
+    assertThat(streamDecode(payload.length)).isEqualTo(expected);
+    // The network-sized chunks TicketMasterResponseBenchmark feeds it
+    assertThat(streamDecode(8192)).isEqualTo(expected);
+  }
+}
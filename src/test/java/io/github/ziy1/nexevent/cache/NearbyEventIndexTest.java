@@ -0,0 +1,74 @@
+package io.github.ziy1.nexevent.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.dto.CachedEventsDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NearbyEventIndexTest {
+  private static final String KEYWORD = "music";
+
+  private static CachedEventDto event(String id, double latitude, double longitude) {
+    return new CachedEventDto(id, id, null, 0, null, null, Set.of(), latitude, longitude);
+  }
+
+  private static CachedEventsDto fetched(CachedEventDto... events) {
+    return new CachedEventsDto(List.of(events), System.currentTimeMillis(), 0);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<Long, ?> cells(NearbyEventIndex index, String field) {
+    Cache<String, ?> keywordIndexes =
+        (Cache<String, ?>) ReflectionTestUtils.getField(index, "keywordIndexes");
+    Object keywordIndex = keywordIndexes.getIfPresent(KEYWORD);
+    return (Map<Long, ?>) ReflectionTestUtils.getField(keywordIndex, field);
+  }
+
+  @Test
+  void answersCoveredSearchesClosestFirst() {
+    NearbyEventIndex index = new NearbyEventIndex(new SimpleMeterRegistry(), 3600, 5, 16);
+    index.add(
+        KEYWORD,
+        37.7749,
+        -122.4194,
+        fetched(event("far", 37.80, -122.27), event("near", 37.775, -122.419)));
+
+    assertThat(index.findNearby(KEYWORD, 37.7750, -122.4190, 50, 10))
+        .hasValueSatisfying(
+            events ->
+                assertThat(events).extracting(CachedEventDto::id).containsExactly("near", "far"));
+    assertThat(index.findNearby(KEYWORD, 40.7128, -74.0060, 50, 10)).isEmpty();
+    assertThat(index.findNearby("sports", 37.7750, -122.4190, 50, 10)).isEmpty();
+  }
+
+  @Test
+  void sweepRemovesExpiredCellsEvenWhenNotTouchedAgain() throws InterruptedException {
+    NearbyEventIndex index = new NearbyEventIndex(new SimpleMeterRegistry(), 1, 5, 16);
+    index.add(KEYWORD, 37.7749, -122.4194, fetched(event("sf", 37.775, -122.419)));
+    index.add(KEYWORD, 40.7128, -74.0060, fetched(event("nyc", 40.713, -74.006)));
+    assertThat(cells(index, "events")).hasSize(2);
+    assertThat(cells(index, "coverage")).hasSize(2);
+
+    Thread.sleep(1100);
+    // Keeps the keyword alive and adds a fresh cell elsewhere
+    index.add(KEYWORD, 34.0522, -118.2437, fetched(event("la", 34.052, -118.244)));
+    index.sweep();
+
+    assertThat(cells(index, "events")).hasSize(1);
+    assertThat(cells(index, "coverage")).hasSize(1);
+    assertThat(index.findNearby(KEYWORD, 34.0522, -118.2437, 10, 10))
+        .hasValueSatisfying(
+            events -> assertThat(events).extracting(CachedEventDto::id).containsExactly("la"));
+  }
+}
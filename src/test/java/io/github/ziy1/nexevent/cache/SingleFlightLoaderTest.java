@@ -0,0 +1,158 @@
+package io.github.ziy1.nexevent.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class SingleFlightLoaderTest {
+  private ReactiveValueOperations<String, String> valueOperations;
+  private SingleFlightLoader loader;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    ReactiveStringRedisTemplate template = mock(ReactiveStringRedisTemplate.class);
+    valueOperations = mock(ReactiveValueOperations.class);
+    when(template.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(Mono.just(true));
+    doReturn(Flux.just(1L)).when(template).execute(any(RedisScript.class), anyList(), anyList());
+
+    loader = new SingleFlightLoader(template);
+    ReflectionTestUtils.setField(loader, "leaseMs", 1000L);
+    ReflectionTestUtils.setField(loader, "pollIntervalMs", 10L);
+    ReflectionTestUtils.setField(loader, "loadTimeoutMs", 5000L);
+  }
+
+  @Test
+  void concurrentLoadsShareOneUpstreamCall() {
+    AtomicInteger calls = new AtomicInteger();
+    Sinks.One<String> upstream = Sinks.one();
+    Mono<String> fetch =
+        Mono.defer(
+            () -> {
+              calls.incrementAndGet();
+              return upstream.asMono();
+            });
+
+    CompletableFuture<String> first = loader.load("key", Mono.empty(), fetch).toFuture();
+    CompletableFuture<String> second = loader.load("key", Mono.empty(), fetch).toFuture();
+    upstream.tryEmitValue("events");
+
+    assertThat(first.join()).isEqualTo("events");
+    assertThat(second.join()).isEqualTo("events");
+    assertThat(calls).hasValue(1);
+  }
+
+  @Test
+  void cancellingTheFirstCallerDoesNotBlankWaiters() {
+    AtomicInteger calls = new AtomicInteger();
+    Sinks.One<String> upstream = Sinks.one();
+    Mono<String> fetch =
+        Mono.defer(
+            () -> {
+              calls.incrementAndGet();
+              return upstream.asMono();
+            });
+
+    Disposable leader = loader.load("key", Mono.empty(), fetch).subscribe();
+    CompletableFuture<String> waiter = loader.load("key", Mono.empty(), fetch).toFuture();
+    // e.g. the recommendation category timeout firing on the caller that started the load
+    leader.dispose();
+    upstream.tryEmitValue("events");
+
+    assertThat(waiter.join()).isEqualTo("events");
+    assertThat(calls).hasValue(1);
+  }
+
+  @Test
+  void callerTimeoutOnlyEndsItsOwnWait() {
+    Sinks.One<String> upstream = Sinks.one();
+
+    StepVerifier.create(
+            loader
+                .load("key", Mono.empty(), upstream.asMono())
+                .timeout(Duration.ofMillis(20))
+                .onErrorResume(e -> Mono.just("timed out")))
+        .expectNext("timed out")
+        .verifyComplete();
+
+    CompletableFuture<String> waiter =
+        loader.load("key", Mono.empty(), Mono.<String>never()).toFuture();
+    upstream.tryEmitValue("events");
+    assertThat(waiter.join()).isEqualTo("events");
+  }
+
+  @Test
+  void keyIsReleasedOnceTheLoadCompletes() {
+    AtomicInteger calls = new AtomicInteger();
+    Mono<String> fetch = Mono.fromSupplier(() -> "events-" + calls.incrementAndGet());
+
+    StepVerifier.create(loader.load("key", Mono.empty(), fetch))
+        .expectNext("events-1")
+        .verifyComplete();
+    StepVerifier.create(loader.load("key", Mono.empty(), fetch))
+        .expectNext("events-2")
+        .verifyComplete();
+  }
+
+  @Test
+  void errorsReachEveryWaiterAndReleaseTheKey() {
+    Sinks.One<String> upstream = Sinks.one();
+
+    CompletableFuture<String> first =
+        loader.load("key", Mono.empty(), upstream.asMono()).toFuture();
+    CompletableFuture<String> second =
+        loader.load("key", Mono.empty(), upstream.asMono()).toFuture();
+    upstream.tryEmitError(new IllegalStateException("upstream down"));
+
+    assertThat(first).isCompletedExceptionally();
+    assertThat(second).isCompletedExceptionally();
+    StepVerifier.create(loader.load("key", Mono.empty(), Mono.just("events")))
+        .expectNext("events")
+        .verifyComplete();
+  }
+
+  @Test
+  void emptyLoadCompletesWaitersEmpty() {
+    StepVerifier.create(loader.load("key", Mono.empty(), Mono.<String>empty())).verifyComplete();
+  }
+
+  @Test
+  void waitsForTheNodeHoldingTheLease() throws Exception {
+    when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(Mono.just(false));
+    AtomicInteger polls = new AtomicInteger();
+    // The other node's value shows up on the third poll
+    Mono<String> cached =
+        Mono.defer(() -> polls.incrementAndGet() >= 3 ? Mono.just("cached") : Mono.empty());
+    AtomicInteger fetches = new AtomicInteger();
+    Mono<String> fetch = Mono.fromSupplier(() -> "fetched-" + fetches.incrementAndGet());
+
+    assertThat(loader.load("key", cached, fetch).toFuture().get(1, TimeUnit.SECONDS))
+        .isEqualTo("cached");
+    assertThat(fetches).hasValue(0);
+  }
+}
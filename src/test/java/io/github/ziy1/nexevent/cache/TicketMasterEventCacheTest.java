@@ -0,0 +1,169 @@
+package io.github.ziy1.nexevent.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import io.github.ziy1.nexevent.dto.CachedEventsDto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TicketMasterEventCacheTest {
+  private static final String KEY = TicketMasterEventCache.KEY_PREFIX + "9q8yy:music";
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private ReactiveRedisTemplate<String, CachedEventsDto> redisTemplate;
+  private ReactiveStringRedisTemplate stringRedisTemplate;
+  private ReactiveValueOperations<String, CachedEventsDto> valueOperations;
+  private TicketMasterEventCache cache;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    redisTemplate = mock(ReactiveRedisTemplate.class);
+    stringRedisTemplate = mock(ReactiveStringRedisTemplate.class);
+    valueOperations = mock(ReactiveValueOperations.class);
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(stringRedisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+
+    cache =
+        new TicketMasterEventCache(
+            redisTemplate,
+            stringRedisTemplate,
+            mock(RedisMessageListenerContainer.class),
+            meterRegistry,
+            16,
+            60);
+  }
+
+  // Writes one entry through the cache and returns the invalidation it broadcast
+  private String putAndCaptureInvalidation(CachedEventsDto value) {
+    when(valueOperations.set(eq(KEY), eq(value), any(Duration.class))).thenReturn(Mono.just(true));
+    StepVerifier.create(cache.put(KEY, value, 60)).verifyComplete();
+
+    ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+    verify(stringRedisTemplate).convertAndSend(anyString(), published.capture());
+    return published.getValue();
+  }
+
+  private static DefaultMessage message(String body) {
+    return new DefaultMessage(
+        "ticketmaster:events:v2:invalidation".getBytes(StandardCharsets.UTF_8),
+        body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private double redisRequests(String result) {
+    return meterRegistry
+        .get("ticketmaster.events.cache.requests")
+        .tag("tier", "redis")
+        .tag("result", result)
+        .counter()
+        .count();
+  }
+
+  @Test
+  void entryWithoutEventsIsAMiss() {
+    when(valueOperations.get(KEY)).thenReturn(Mono.just(new CachedEventsDto(null, 0, 0)));
+
+    StepVerifier.create(cache.get(KEY)).verifyComplete();
+    StepVerifier.create(cache.get(KEY)).verifyComplete();
+
+    // Not kept in the near cache either
+    verify(valueOperations, times(2)).get(KEY);
+    assertThat(redisRequests("miss")).isEqualTo(2);
+    assertThat(redisRequests("hit")).isZero();
+  }
+
+  @Test
+  void unreadableEntryIsAMiss() {
+    when(valueOperations.get(any())).thenReturn(Mono.error(new SerializationException("bad")));
+
+    StepVerifier.create(cache.get(KEY)).verifyComplete();
+
+    assertThat(redisRequests("miss")).isEqualTo(1);
+  }
+
+  @Test
+  void redisHitIsServedFromTheNearCacheAfterwards() {
+    CachedEventsDto value = new CachedEventsDto(List.of(), 1, 1);
+    when(valueOperations.get(KEY)).thenReturn(Mono.just(value));
+
+    StepVerifier.create(cache.get(KEY)).expectNext(value).verifyComplete();
+    StepVerifier.create(cache.get(KEY)).expectNext(value).verifyComplete();
+
+    verify(valueOperations, times(1)).get(KEY);
+    assertThat(redisRequests("hit")).isEqualTo(1);
+  }
+
+  @Test
+  void putIsServedFromTheNearCache() {
+    CachedEventsDto value = new CachedEventsDto(List.of(), 1, 1);
+    putAndCaptureInvalidation(value);
+
+    StepVerifier.create(cache.get(KEY)).expectNext(value).verifyComplete();
+
+    verify(valueOperations, times(0)).get(KEY);
+  }
+
+  @Test
+  void invalidateDropsTheNearCacheEntry() {
+    CachedEventsDto value = new CachedEventsDto(List.of(), 1, 1);
+    putAndCaptureInvalidation(value);
+    when(redisTemplate.delete(KEY)).thenReturn(Mono.just(1L));
+    when(valueOperations.get(KEY)).thenReturn(Mono.empty());
+
+    StepVerifier.create(cache.invalidate(KEY)).verifyComplete();
+    StepVerifier.create(cache.get(KEY)).verifyComplete();
+
+    verify(valueOperations).get(KEY);
+    verify(stringRedisTemplate, times(2)).convertAndSend(anyString(), anyString());
+  }
+
+  @Test
+  void invalidationFromAnotherNodeDropsTheNearCacheEntry() {
+    CachedEventsDto value = new CachedEventsDto(List.of(), 1, 1);
+    putAndCaptureInvalidation(value);
+    when(valueOperations.get(KEY)).thenReturn(Mono.empty());
+
+    cache.onMessage(message("other-node|" + KEY), null);
+
+    StepVerifier.create(cache.get(KEY)).verifyComplete();
+    assertThat(meterRegistry.counter("ticketmaster.events.cache.invalidations").count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void ownInvalidationIsIgnored() {
+    CachedEventsDto value = new CachedEventsDto(List.of(), 1, 1);
+    String published = putAndCaptureInvalidation(value);
+
+    cache.onMessage(message(published), null);
+
+    StepVerifier.create(cache.get(KEY)).expectNext(value).verifyComplete();
+    verify(valueOperations, times(0)).get(KEY);
+    assertThat(meterRegistry.counter("ticketmaster.events.cache.invalidations").count()).isZero();
+  }
+}
@@ -0,0 +1,113 @@
+package io.github.ziy1.nexevent.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.dto.CachedEventsDto;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TypedJacksonRedisSerializerTest {
+  private static final CachedEventsDto VALUE =
+      new CachedEventsDto(
+          List.of(
+              new CachedEventDto(
+                  "ev-1",
+                  "Concert",
+                  "https://example.com/ev-1",
+                  3.2,
+                  "https://example.com/ev-1.jpg",
+                  "1 Main St",
+                  Set.of("Music"),
+                  37.77,
+                  -122.42),
+              new CachedEventDto("ev-2", "Play", null, 0, null, null, Set.of(), null, null)),
+          1_700_000_000_000L,
+          420);
+
+  private static ObjectMapper lenient(ObjectMapper mapper) {
+    return mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+  }
+
+  @Test
+  void jsonRoundTrip() {
+    TypedJacksonRedisSerializer<CachedEventsDto> serializer =
+        new TypedJacksonRedisSerializer<>(lenient(new ObjectMapper()), CachedEventsDto.class);
+
+    assertThat(serializer.deserialize(serializer.serialize(VALUE))).isEqualTo(VALUE);
+  }
+
+  @Test
+  void smileRoundTrip() {
+    TypedJacksonRedisSerializer<CachedEventsDto> serializer =
+        new TypedJacksonRedisSerializer<>(
+            lenient(new ObjectMapper(new SmileFactory())), CachedEventsDto.class);
+
+    byte[] bytes = serializer.serialize(VALUE);
+
+    // Smile header, not JSON text
+    assertThat(bytes[0]).isEqualTo((byte) ':');
+    assertThat(serializer.deserialize(bytes)).isEqualTo(VALUE);
+  }
+
+  @Test
+  void unknownPropertiesAreIgnored() {
+    TypedJacksonRedisSerializer<CachedEventsDto> serializer =
+        new TypedJacksonRedisSerializer<>(lenient(new ObjectMapper()), CachedEventsDto.class);
+
+    CachedEventsDto value =
+        serializer.deserialize(
+            "{\"events\":[],\"fetchedAt\":5,\"fetchMillis\":1,\"added\":true}"
+                .getBytes(StandardCharsets.UTF_8));
+
+    assertThat(value).isEqualTo(new CachedEventsDto(List.of(), 5, 1));
+  }
+
+  @Test
+  void unreadableBytesThrowSerializationException() {
+    TypedJacksonRedisSerializer<CachedEventsDto> serializer =
+        new TypedJacksonRedisSerializer<>(lenient(new ObjectMapper()), CachedEventsDto.class);
+
+    assertThatThrownBy(
+            () -> serializer.deserialize("{\"events\":".getBytes(StandardCharsets.UTF_8)))
+        .isInstanceOf(SerializationException.class);
+  }
+
+  @Test
+  void nullAndEmptyMapToEachOther() {
+    TypedJacksonRedisSerializer<CachedEventsDto> serializer =
+        new TypedJacksonRedisSerializer<>(new ObjectMapper(), CachedEventsDto.class);
+
+    assertThat(serializer.serialize(null)).isEmpty();
+    assertThat(serializer.deserialize(null)).isNull();
+    assertThat(serializer.deserialize(new byte[0])).isNull();
+  }
+
+  @Test
+  void decodeTimerRecordsFailedDecodesToo() {
+    Timer decodeTimer = Timer.builder("decode").register(new SimpleMeterRegistry());
+    TypedJacksonRedisSerializer<CachedEventsDto> serializer =
+        new TypedJacksonRedisSerializer<>(new ObjectMapper(), CachedEventsDto.class, decodeTimer);
+
+    serializer.deserialize(serializer.serialize(VALUE));
+    assertThatThrownBy(() -> serializer.deserialize(new byte[] {'x'}))
+        .isInstanceOf(SerializationException.class);
+    // Empty values short-circuit before decoding
+    serializer.deserialize(new byte[0]);
+
+    assertThat(decodeTimer.count()).isEqualTo(2);
+  }
+}
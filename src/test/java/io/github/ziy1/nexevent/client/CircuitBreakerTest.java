@@ -0,0 +1,131 @@
+package io.github.ziy1.nexevent.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class CircuitBreakerTest {
+  private final AtomicInteger subscriptions = new AtomicInteger();
+
+  private static CircuitBreaker breaker(Duration openDuration) {
+    // Window of 4, at least 4 calls, opens at 50% failures, 2 probes
+    return new CircuitBreaker(4, 4, 0.5, openDuration, 2, e -> e instanceof IOException);
+  }
+
+  private Mono<String> succeeding() {
+    return Mono.fromSupplier(
+        () -> {
+          subscriptions.incrementAndGet();
+          return "ok";
+        });
+  }
+
+  private Mono<String> failing() {
+    return Mono.defer(
+        () -> {
+          subscriptions.incrementAndGet();
+          return Mono.error(new IOException("down"));
+        });
+  }
+
+  private static void call(CircuitBreaker breaker, Mono<String> call) {
+    breaker.run(call).onErrorResume(e -> Mono.empty()).block();
+  }
+
+  @Test
+  void opensAtTheFailureRateAndFailsFastWithoutCalling() {
+    CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+    call(breaker, succeeding());
+    call(breaker, failing());
+    call(breaker, succeeding());
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    call(breaker, failing());
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    int before = subscriptions.get();
+    StepVerifier.create(breaker.run(succeeding()))
+        .expectError(CircuitBreaker.CallNotPermittedException.class)
+        .verify();
+    assertThat(subscriptions).hasValue(before);
+  }
+
+  @Test
+  void errorsThatAreNotFailuresCountAsSuccesses() {
+    CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+    for (int i = 0; i < 4; i++) {
+      call(breaker, Mono.error(new IllegalArgumentException("bad request")));
+    }
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void oldFailuresSlideOutOfTheWindow() {
+    CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+    call(breaker, failing());
+    for (int i = 0; i < 6; i++) {
+      call(breaker, succeeding());
+    }
+    call(breaker, failing());
+
+    // Only one failure among the last 4 calls
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void closesAfterSuccessfulProbes() throws InterruptedException {
+    CircuitBreaker breaker = breaker(Duration.ofMillis(20));
+    for (int i = 0; i < 4; i++) {
+      call(breaker, failing());
+    }
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    Thread.sleep(30);
+    call(breaker, succeeding());
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    call(breaker, succeeding());
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void failedProbeOpensAgain() throws InterruptedException {
+    CircuitBreaker breaker = breaker(Duration.ofMillis(20));
+    for (int i = 0; i < 4; i++) {
+      call(breaker, failing());
+    }
+
+    Thread.sleep(30);
+    call(breaker, failing());
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void halfOpenAdmitsOnlyTheProbesAndCancelledProbesFreeTheirSlot() throws InterruptedException {
+    CircuitBreaker breaker = breaker(Duration.ofMillis(20));
+    for (int i = 0; i < 4; i++) {
+      call(breaker, failing());
+    }
+    Thread.sleep(30);
+
+    var first = breaker.run(Mono.never()).subscribe();
+    var second = breaker.run(Mono.never()).subscribe();
+    StepVerifier.create(breaker.run(succeeding()))
+        .expectError(CircuitBreaker.CallNotPermittedException.class)
+        .verify();
+
+    first.dispose();
+    StepVerifier.create(breaker.run(succeeding())).expectNext("ok").verifyComplete();
+    second.dispose();
+  }
+}
@@ -0,0 +1,97 @@
+package io.github.ziy1.nexevent.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class ConcurrencyLimiterTest {
+  private static ConcurrencyLimiter limiter(int limit, Duration queueTimeout) {
+    return new ConcurrencyLimiter(1, limit, queueTimeout, e -> e instanceof IOException);
+  }
+
+  @Test
+  void queuedCallStartsWhenAPermitIsReleased() {
+    ConcurrencyLimiter limiter = limiter(1, Duration.ofSeconds(5));
+    Sinks.One<String> first = Sinks.one();
+    AtomicBoolean secondStarted = new AtomicBoolean();
+
+    Disposable running = limiter.run(first.asMono()).subscribe();
+    var second =
+        limiter
+            .run(Mono.fromSupplier(() -> "second").doOnSubscribe(s -> secondStarted.set(true)))
+            .toFuture();
+
+    assertThat(limiter.getInFlight()).isEqualTo(1);
+    assertThat(limiter.getQueued()).isEqualTo(1);
+    assertThat(secondStarted).isFalse();
+
+    first.tryEmitValue("first");
+
+    assertThat(second.join()).isEqualTo("second");
+    assertThat(limiter.getInFlight()).isZero();
+    assertThat(limiter.getQueued()).isZero();
+    running.dispose();
+  }
+
+  @Test
+  void callQueuedPastTheTimeoutIsRejectedWithoutRunning() {
+    ConcurrencyLimiter limiter = limiter(1, Duration.ofMillis(20));
+    AtomicBoolean started = new AtomicBoolean();
+    Disposable running = limiter.run(Mono.never()).subscribe();
+
+    StepVerifier.create(limiter.run(Mono.just("late").doOnSubscribe(s -> started.set(true))))
+        .expectError(RejectedExecutionException.class)
+        .verify(Duration.ofSeconds(5));
+
+    assertThat(started).isFalse();
+    assertThat(limiter.getQueued()).isZero();
+    running.dispose();
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  void cancelledWaiterGivesUpItsPlace() {
+    ConcurrencyLimiter limiter = limiter(1, Duration.ofSeconds(5));
+    Sinks.One<String> first = Sinks.one();
+    AtomicBoolean cancelledStarted = new AtomicBoolean();
+
+    limiter.run(first.asMono()).subscribe();
+    Disposable cancelled =
+        limiter.run(Mono.just("x").doOnSubscribe(s -> cancelledStarted.set(true))).subscribe();
+    var third = limiter.run(Mono.just("third")).toFuture();
+    cancelled.dispose();
+
+    first.tryEmitValue("first");
+
+    assertThat(third.join()).isEqualTo("third");
+    assertThat(cancelledStarted).isFalse();
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  void overloadErrorsShrinkTheLimit() {
+    ConcurrencyLimiter limiter = limiter(10, Duration.ofSeconds(5));
+
+    for (int i = 0; i < 5; i++) {
+      limiter
+          .run(Mono.error(new IOException("overloaded")))
+          .onErrorResume(e -> Mono.empty())
+          .block();
+    }
+    assertThat(limiter.getLimit()).isLessThan(10);
+
+    int limit = limiter.getLimit();
+    limiter.run(Mono.error(new IllegalStateException())).onErrorResume(e -> Mono.empty()).block();
+    assertThat(limiter.getLimit()).isEqualTo(limit);
+  }
+}
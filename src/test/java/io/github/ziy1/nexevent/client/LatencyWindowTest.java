@@ -0,0 +1,50 @@
+package io.github.ziy1.nexevent.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyWindowTest {
+  @Test
+  void noPercentileUntilEnoughSamples() {
+    LatencyWindow window = new LatencyWindow(100, 0.95, 10);
+
+    for (int i = 0; i < 9; i++) {
+      window.record(1_000_000);
+    }
+    assertThat(window.getPercentile()).isNull();
+
+    window.record(1_000_000);
+    assertThat(window.getPercentile()).isEqualTo(Duration.ofMillis(1));
+  }
+
+  @Test
+  void percentileIsTheNearestRankOfTheWindow() {
+    LatencyWindow window = new LatencyWindow(100, 0.95, 1);
+
+    // Recomputed on the 1st sample and every 32nd after it, so last on the 97th
+    for (int ms = 1; ms <= 97; ms++) {
+      window.record(Duration.ofMillis(ms).toNanos());
+    }
+
+    // ceil(0.95 * 97) = 93rd smallest
+    assertThat(window.getPercentile()).isEqualTo(Duration.ofMillis(93));
+  }
+
+  @Test
+  void oldSamplesFallOutOfTheWindow() {
+    LatencyWindow window = new LatencyWindow(32, 0.5, 1);
+
+    for (int i = 0; i < 32; i++) {
+      window.record(Duration.ofSeconds(1).toNanos());
+    }
+    // The 33rd lands on a recompute
+    for (int i = 0; i < 33; i++) {
+      window.record(Duration.ofMillis(10).toNanos());
+    }
+
+    assertThat(window.getPercentile()).isEqualTo(Duration.ofMillis(10));
+  }
+}
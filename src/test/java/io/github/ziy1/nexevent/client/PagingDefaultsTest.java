@@ -0,0 +1,56 @@
+package io.github.ziy1.nexevent.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+
+import io.github.ziy1.nexevent.service.impl.EventPrefetchScheduler;
+import io.github.ziy1.nexevent.service.impl.EventServiceImpl;
+
+// Code defaults only apply when application.properties lacks a key, and then every class reading
+// the same ticketmaster.paging key has to agree with the others and with the file
+class PagingDefaultsTest {
+  private static final Pattern PAGING_DEFAULT =
+      Pattern.compile("\\$\\{(ticketmaster\\.paging\\.[a-z-]+):([^}]+)}");
+
+  @Test
+  void everyPagingDefaultMatchesApplicationProperties() throws Exception {
+    Properties properties = new Properties();
+    try (InputStream in = getClass().getResourceAsStream("/application.properties")) {
+      properties.load(in);
+    }
+
+    Map<String, String> defaults = new HashMap<>();
+    for (Class<?> type :
+        new Class<?>[] {
+          TicketMasterApiClient.class, EventServiceImpl.class, EventPrefetchScheduler.class
+        }) {
+      for (Field field : type.getDeclaredFields()) {
+        Value value = field.getAnnotation(Value.class);
+        if (value == null) {
+          continue;
+        }
+        Matcher matcher = PAGING_DEFAULT.matcher(value.value());
+        while (matcher.find()) {
+          String key = matcher.group(1);
+          String fallback = matcher.group(2);
+          assertThat(fallback)
+              .as("%s.%s default for %s", type.getSimpleName(), field.getName(), key)
+              .isEqualTo(properties.getProperty(key));
+          defaults.put(key, fallback);
+        }
+      }
+    }
+
+    assertThat(defaults).containsKeys("ticketmaster.paging.max-events");
+  }
+}
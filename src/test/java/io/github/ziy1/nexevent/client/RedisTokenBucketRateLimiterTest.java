@@ -0,0 +1,100 @@
+package io.github.ziy1.nexevent.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import io.github.ziy1.nexevent.exception.TicketMasterThrottledException;
+
+class RedisTokenBucketRateLimiterTest {
+  private ReactiveStringRedisTemplate template;
+  private RedisTokenBucketRateLimiter rateLimiter;
+
+  @BeforeEach
+  void setUp() {
+    template = mock(ReactiveStringRedisTemplate.class);
+    rateLimiter = new RedisTokenBucketRateLimiter(template);
+    ReflectionTestUtils.setField(rateLimiter, "permitsPerSecond", 5.0);
+    ReflectionTestUtils.setField(rateLimiter, "burst", 5);
+    ReflectionTestUtils.setField(rateLimiter, "dailyQuota", 5000L);
+    ReflectionTestUtils.setField(rateLimiter, "maxWaitMs", 200L);
+  }
+
+  private void scriptReturns(Flux<Long> result) {
+    doReturn(result).when(template).execute(any(RedisScript.class), anyList(), anyList());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void dailyKeyIsLeftToTheScript() {
+    scriptReturns(Flux.just(0L));
+
+    StepVerifier.create(rateLimiter.acquire()).verifyComplete();
+
+    ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+    verify(template).execute(any(RedisScript.class), keys.capture(), anyList());
+    // The script appends the day from Redis server time
+    assertThat(keys.getValue())
+        .containsExactly("ratelimit:ticketmaster:bucket", "ratelimit:ticketmaster:day:");
+  }
+
+  @Test
+  void usedUpQuotaIsThrottled() {
+    scriptReturns(Flux.just(-1L));
+
+    StepVerifier.create(rateLimiter.acquire())
+        .expectErrorMessage("Daily Ticketmaster quota used up")
+        .verify();
+  }
+
+  @Test
+  void waitsForTheNextTokenWithinTheDeadline() {
+    doReturn(Flux.just(50L), Flux.just(0L))
+        .when(template)
+        .execute(any(RedisScript.class), anyList(), anyList());
+
+    StepVerifier.create(rateLimiter.acquire()).verifyComplete();
+
+    verify(template, times(2)).execute(any(RedisScript.class), anyList(), anyList());
+  }
+
+  @Test
+  void waitPastTheDeadlineIsThrottled() {
+    scriptReturns(Flux.just(500L));
+
+    StepVerifier.create(rateLimiter.acquire())
+        .expectError(TicketMasterThrottledException.class)
+        .verify();
+  }
+
+  @Test
+  void unreachableRedisLetsTheCallThrough() {
+    scriptReturns(Flux.error(new RedisConnectionFailureException("down")));
+
+    StepVerifier.create(rateLimiter.acquire()).verifyComplete();
+  }
+
+  @Test
+  void failedRefundIsIgnored() {
+    scriptReturns(Flux.error(new RedisConnectionFailureException("down")));
+
+    StepVerifier.create(rateLimiter.refund()).verifyComplete();
+  }
+}
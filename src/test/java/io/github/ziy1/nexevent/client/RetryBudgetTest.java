@@ -0,0 +1,42 @@
+package io.github.ziy1.nexevent.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+  @Test
+  void startsFullAndRunsOut() {
+    RetryBudget budget = new RetryBudget(0.1, 2);
+
+    assertThat(budget.tryWithdraw()).isTrue();
+    assertThat(budget.tryWithdraw()).isTrue();
+    assertThat(budget.tryWithdraw()).isFalse();
+  }
+
+  @Test
+  void callsRefillAFractionOfARetryEach() {
+    RetryBudget budget = new RetryBudget(0.25, 1);
+    budget.tryWithdraw();
+
+    for (int i = 0; i < 3; i++) {
+      budget.onCall();
+    }
+    assertThat(budget.tryWithdraw()).isFalse();
+
+    budget.onCall();
+    assertThat(budget.tryWithdraw()).isTrue();
+  }
+
+  @Test
+  void depositsAreCappedAtTheMaximum() {
+    RetryBudget budget = new RetryBudget(0.5, 2);
+
+    for (int i = 0; i < 10; i++) {
+      budget.onCall();
+    }
+
+    assertThat(budget.getTokens()).isCloseTo(2.0, within(1e-9));
+  }
+}
@@ -0,0 +1,157 @@
+package io.github.ziy1.nexevent.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import io.github.ziy1.nexevent.exception.TicketMasterUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TicketMasterApiClientTest {
+  private final AtomicInteger exchanges = new AtomicInteger();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RedisTokenBucketRateLimiter rateLimiter = mock(RedisTokenBucketRateLimiter.class);
+  private HttpStatus responseStatus;
+  private boolean hang;
+  private int maxConcurrentRequests = 20;
+
+  @BeforeEach
+  void setUp() {
+    responseStatus = HttpStatus.SERVICE_UNAVAILABLE;
+    when(rateLimiter.acquire()).thenReturn(Mono.empty());
+    when(rateLimiter.refund()).thenReturn(Mono.empty());
+  }
+
+  private TicketMasterApiClient client(int maxAttempts) {
+    WebClient webClient =
+        WebClient.builder()
+            .exchangeFunction(
+                request -> {
+                  exchanges.incrementAndGet();
+                  if (hang) {
+                    return Mono.never();
+                  }
+                  return Mono.just(
+                      ClientResponse.create(responseStatus)
+                          .header("Content-Type", "application/json")
+                          .body("{\"page\": {\"totalPages\": 1}}")
+                          .build());
+                })
+            .build();
+
+    TicketMasterApiClient client =
+        new TicketMasterApiClient(
+            webClient,
+            rateLimiter,
+            meterRegistry,
+            1,
+            maxConcurrentRequests,
+            50,
+            20,
+            0.5,
+            30000,
+            2,
+            0.1);
+    ReflectionTestUtils.setField(client, "baseUrl", "http://ticketmaster.test/events.json");
+    ReflectionTestUtils.setField(client, "apiKey", "key");
+    ReflectionTestUtils.setField(client, "defaultKeyword", "");
+    ReflectionTestUtils.setField(client, "radius", "50");
+    ReflectionTestUtils.setField(client, "attemptTimeoutMs", 1000L);
+    ReflectionTestUtils.setField(client, "maxAttempts", maxAttempts);
+    ReflectionTestUtils.setField(client, "retryBackoffMs", 1L);
+    ReflectionTestUtils.setField(client, "pageSize", 50);
+    ReflectionTestUtils.setField(client, "maxPages", 1);
+    ReflectionTestUtils.setField(client, "maxEvents", 150);
+    return client;
+  }
+
+  private double retryBudget() {
+    return meterRegistry.get("ticketmaster.client.retry.budget").gauge().value();
+  }
+
+  @Test
+  void maxAttemptsIncludesTheFirstAttempt() {
+    StepVerifier.create(client(2).searchNearByEventsReactive("9q8yyk", null))
+        .expectError(TicketMasterUnavailableException.class)
+        .verify();
+
+    assertThat(exchanges).hasValue(2);
+  }
+
+  @Test
+  void singleAttemptIsNotRetried() {
+    StepVerifier.create(client(1).searchNearByEventsReactive("9q8yyk", null))
+        .expectError(TicketMasterUnavailableException.class)
+        .verify();
+
+    assertThat(exchanges).hasValue(1);
+  }
+
+  @Test
+  void retriesDoNotDepositIntoTheRetryBudget() {
+    TicketMasterApiClient client = client(3);
+
+    StepVerifier.create(client.searchNearByEventsReactive("9q8yyk", null))
+        .expectError(TicketMasterUnavailableException.class)
+        .verify();
+
+    // Full budget of 10, the deposit capped, then two retries withdrawn
+    assertThat(exchanges).hasValue(3);
+    assertThat(retryBudget()).isCloseTo(8.0, within(1e-9));
+  }
+
+  @Test
+  void successfulCallIsMadeOnce() {
+    responseStatus = HttpStatus.OK;
+
+    StepVerifier.create(client(3).searchNearByEventsReactive("9q8yyk", null))
+        .assertNext(page -> assertThat(page.events()).isEmpty())
+        .verifyComplete();
+
+    assertThat(exchanges).hasValue(1);
+  }
+
+  @Test
+  void tokenOfACallRejectedByTheConcurrencyLimiterIsRefunded() {
+    hang = true;
+    maxConcurrentRequests = 1;
+    TicketMasterApiClient client = client(1);
+
+    var inFlight = client.searchNearByEventsReactive("9q8yyk", null).subscribe();
+    StepVerifier.create(client.searchNearByEventsReactive("dr5reg", null))
+        .expectError()
+        .verify(Duration.ofSeconds(5));
+    inFlight.dispose();
+
+    assertThat(exchanges).hasValue(1);
+    verify(rateLimiter, times(2)).acquire();
+    verify(rateLimiter, times(1)).refund();
+  }
+
+  @Test
+  void tokenOfACallThatWasSentIsNotRefunded() {
+    StepVerifier.create(client(2).searchNearByEventsReactive("9q8yyk", null))
+        .expectError(TicketMasterUnavailableException.class)
+        .verify();
+
+    verify(rateLimiter, never()).refund();
+  }
+}
@@ -0,0 +1,193 @@
+package io.github.ziy1.nexevent.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.dto.TicketMasterApiResponseDto;
+import io.github.ziy1.nexevent.dto.TicketMasterEventPageDto;
+import io.github.ziy1.nexevent.mapper.EventMapper;
+import io.github.ziy1.nexevent.util.IdNormalizerUtil;
+
+class TicketMasterEventStreamDecoderTest {
+  // Recorded search shared with the benchmarks
+  private static final Path RECORDED_RESPONSE =
+      Path.of("src/jmh/resources/fixtures/ticketmaster-events.json");
+
+  // Fields missing, empty or unusual in the ways the DTO tolerates
+  private static final String EDGE_CASES =
+      """
+      {
+        "_links": {"events": [{"id": "NotAnEvent", "name": "link"}]},
+        "_embedded": {
+          "events": [
+            {
+              "id": "MixedCASE_Id",
+              "name": "Everything",
+              "url": "https://example.com/1",
+              "distance": 1.5,
+              "images": [{"url": ""}, {"url": null}, {"url": "https://img/2"}, {"url": "https://img/3"}],
+              "classifications": [
+                {"genre": {"id": "g1", "name": "Rock"}},
+                {"segment": {"name": "Music"}},
+                {"genre": {"name": "Rock"}},
+                {"genre": {"name": "Pop"}}
+              ],
+              "_embedded": {
+                "venues": [
+                  {
+                    "id": "venue",
+                    "name": "Not the event name",
+                    "address": {"line1": "1 Main St", "line2": "Suite 2"},
+                    "city": {"name": "Springfield"},
+                    "state": {"name": "Illinois", "stateCode": "IL"},
+                    "location": {"latitude": "39.78", "longitude": "-89.65"}
+                  },
+                  {
+                    "address": {"line1": "Second venue"},
+                    "location": {"latitude": "1", "longitude": "2"}
+                  }
+                ],
+                "attractions": [{"id": "a1", "name": "Band", "url": "https://band"}]
+              }
+            },
+            {"id": "bare"},
+            {
+              "id": "no-venues",
+              "distance": 12,
+              "images": [],
+              "_embedded": {"venues": []}
+            },
+            {
+              "id": "bad-location",
+              "name": null,
+              "_embedded": {
+                "venues": [{"city": {"name": "Nowhere"}, "location": {"latitude": "n/a"}}]
+              }
+            }
+          ]
+        },
+        "page": {"size": 20, "totalElements": 4, "totalPages": 7, "number": 0}
+      }
+      """;
+
+  private final TicketMasterEventStreamDecoder decoder = new TicketMasterEventStreamDecoder();
+  private final EventMapper eventMapper = new EventMapper();
+  private final ObjectMapper objectMapper =
+      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  // What the client produced before: bind the whole DTO, map it, then normalize ids
+  private List<CachedEventDto> bindAndMap(byte[] payload) throws Exception {
+    TicketMasterApiResponseDto response =
+        objectMapper.readValue(payload, TicketMasterApiResponseDto.class);
+    return response.getEmbedded().getEvents().stream()
+        .map(eventMapper::toCachedEvent)
+        .map(
+            event ->
+                new CachedEventDto(
+                    IdNormalizerUtil.normalize(event.id()),
+                    event.name(),
+                    event.url(),
+                    event.distance(),
+                    event.imageUrl(),
+                    event.address(),
+                    event.categories(),
+                    event.latitude(),
+                    event.longitude()))
+        .toList();
+  }
+
+  private static Flux<DataBuffer> chunked(byte[] payload, int maxChunkSize) {
+    int chunkSize = Math.min(maxChunkSize, payload.length);
+    return Flux.range(0, (payload.length + chunkSize - 1) / chunkSize)
+        .map(
+            i ->
+                DefaultDataBufferFactory.sharedInstance.wrap(
+                    Arrays.copyOfRange(
+                        payload, i * chunkSize, Math.min(payload.length, (i + 1) * chunkSize))));
+  }
+
+  private TicketMasterEventPageDto decode(byte[] payload, int chunkSize) {
+    return decoder.decode(chunked(payload, chunkSize)).block();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 7, 8192, Integer.MAX_VALUE})
+  void recordedResponseMatchesDtoBinding(int chunkSize) throws Exception {
+    byte[] payload = Files.readAllBytes(RECORDED_RESPONSE);
+
+    TicketMasterEventPageDto page = decode(payload, chunkSize);
+
+    assertThat(page.events()).isNotEmpty().isEqualTo(bindAndMap(payload));
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3, 64, Integer.MAX_VALUE})
+  void edgeCasesMatchDtoBinding(int chunkSize) throws Exception {
+    byte[] payload = EDGE_CASES.getBytes(StandardCharsets.UTF_8);
+
+    TicketMasterEventPageDto page = decode(payload, chunkSize);
+
+    assertThat(page.events()).hasSize(4).isEqualTo(bindAndMap(payload));
+    assertThat(page.totalPages()).isEqualTo(7);
+  }
+
+  @Test
+  void edgeCaseValues() {
+    List<CachedEventDto> events =
+        decode(EDGE_CASES.getBytes(StandardCharsets.UTF_8), Integer.MAX_VALUE).events();
+
+    CachedEventDto everything = events.get(0);
+    assertThat(everything.id()).isEqualTo("mixedcase_id");
+    assertThat(everything.name()).isEqualTo("Everything");
+    assertThat(everything.imageUrl()).isEqualTo("https://img/2");
+    assertThat(everything.categories()).containsExactlyInAnyOrder("Rock", "Pop", "");
+    assertThat(everything.address()).isEqualTo("1 Main St Suite 2, Springfield, Illinois");
+    assertThat(everything.latitude()).isEqualTo(39.78);
+    assertThat(everything.longitude()).isEqualTo(-89.65);
+
+    CachedEventDto bare = events.get(1);
+    assertThat(bare.imageUrl()).isEmpty();
+    assertThat(bare.address()).isEmpty();
+    assertThat(bare.latitude()).isNull();
+
+    assertThat(events.get(3).latitude()).isNull();
+  }
+
+  @Test
+  void emptySearchHasNoEvents() {
+    byte[] payload = "{\"page\": {\"totalPages\": 0}}".getBytes(StandardCharsets.UTF_8);
+
+    TicketMasterEventPageDto page = decode(payload, Integer.MAX_VALUE);
+
+    assertThat(page.events()).isEmpty();
+    assertThat(page.totalPages()).isZero();
+  }
+
+  @Test
+  void malformedJsonFailsWithDecodingException() {
+    byte[] payload = "{\"_embedded\": {\"events\": [{\"id\": ".getBytes(StandardCharsets.UTF_8);
+
+    StepVerifier.create(decoder.decode(chunked(payload, 4)))
+        .expectError(DecodingException.class)
+        .verify();
+  }
+}
@@ -0,0 +1,112 @@
+package io.github.ziy1.nexevent.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExecutorConfigTest {
+  private final CountDownLatch release = new CountDownLatch(1);
+  private ExecutorService executor;
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  private ExecutorService threadPool(int threads, int queueSize) {
+    return new ExecutorConfig()
+        .executorService(threads, 60, queueSize, false, threads, new SimpleMeterRegistry());
+  }
+
+  private ExecutorService virtualThreads(int maxConcurrency, SimpleMeterRegistry meterRegistry) {
+    return new ExecutorConfig().executorService(1, 60, 1, true, maxConcurrency, meterRegistry);
+  }
+
+  private static double gauge(SimpleMeterRegistry meterRegistry, String name) {
+    return meterRegistry.get(name).tag("name", "events").gauge().value();
+  }
+
+  private void blockUntilReleased() {
+    try {
+      release.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void runsAsManyTasksAtOnceAsItHasThreadsBeforeQueueing() throws InterruptedException {
+    executor = threadPool(3, 10);
+    CountDownLatch running = new CountDownLatch(3);
+
+    for (int i = 0; i < 3; i++) {
+      executor.execute(
+          () -> {
+            running.countDown();
+            blockUntilReleased();
+          });
+    }
+
+    // With core below max these would queue behind a single thread
+    assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void rejectsOnceThreadsAndQueueAreFull() {
+    executor = threadPool(1, 1);
+
+    executor.execute(this::blockUntilReleased);
+    executor.execute(this::blockUntilReleased);
+
+    assertThatThrownBy(() -> executor.execute(() -> {}))
+        .isInstanceOf(RejectedExecutionException.class);
+  }
+
+  @Test
+  void virtualThreadsFallBackToTheThreadPoolBeforeJdk21() {
+    assumeThat(ExecutorConfig.supportsVirtualThreads()).isFalse();
+
+    executor = virtualThreads(4, new SimpleMeterRegistry());
+
+    assertThat(executor).isInstanceOf(ThreadPoolExecutor.class);
+  }
+
+  @Test
+  void virtualThreadsRunNoMoreTasksAtOnceThanTheLimit() throws InterruptedException {
+    assumeThat(ExecutorConfig.supportsVirtualThreads()).isTrue();
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    executor = virtualThreads(2, meterRegistry);
+    CountDownLatch running = new CountDownLatch(2);
+
+    // Well past what the thread pool's queue would accept, none of it is rejected
+    for (int i = 0; i < 20; i++) {
+      executor.execute(
+          () -> {
+            running.countDown();
+            blockUntilReleased();
+          });
+    }
+
+    assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (gauge(meterRegistry, "executor.queued") < 18 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(gauge(meterRegistry, "executor.active")).isEqualTo(2);
+    assertThat(gauge(meterRegistry, "executor.queued")).isEqualTo(18);
+  }
+}
@@ -0,0 +1,120 @@
+package io.github.ziy1.nexevent.config;
+
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import jakarta.servlet.Filter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import io.github.ziy1.nexevent.security.JwtTokenProvider;
+
+class SecurityConfigTest {
+  private AnnotationConfigWebApplicationContext context;
+
+  @AfterEach
+  void tearDown() {
+    context.close();
+  }
+
+  private MockMvc mockMvc(String scrapePassword) {
+    context = new AnnotationConfigWebApplicationContext();
+    context.setServletContext(new MockServletContext());
+    context
+        .getEnvironment()
+        .getPropertySources()
+        .addFirst(
+            new MapPropertySource(
+                "test",
+                Map.of(
+                    "cors.allowed-origins", "http://localhost:3000",
+                    "auth.password.bcrypt-strength", "4",
+                    "metrics.scrape.password", scrapePassword)));
+    context.register(Endpoints.class, SecurityConfig.class);
+    context.refresh();
+
+    return MockMvcBuilders.webAppContextSetup(context)
+        .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+        .build();
+  }
+
+  private static String basic(String username, String password) {
+    return "Basic "
+        + Base64.getEncoder()
+            .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void healthIsOpen() throws Exception {
+    mockMvc("secret").perform(get("/actuator/health")).andExpect(status().isOk());
+  }
+
+  @Test
+  void prometheusNeedsScrapeCredentials() throws Exception {
+    MockMvc mockMvc = mockMvc("secret");
+
+    mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    mockMvc
+        .perform(get("/actuator/prometheus").header("Authorization", basic("prometheus", "wrong")))
+        .andExpect(status().isUnauthorized());
+    mockMvc
+        .perform(get("/actuator/prometheus").header("Authorization", basic("prometheus", "secret")))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void prometheusIsClosedWithoutAConfiguredPassword() throws Exception {
+    mockMvc("")
+        .perform(get("/actuator/prometheus").header("Authorization", basic("prometheus", "")))
+        .andExpect(status().isForbidden());
+  }
+
+  @Configuration
+  @EnableWebMvc
+  static class Endpoints {
+    @Bean
+    JwtTokenProvider jwtTokenProvider() {
+      return mock(JwtTokenProvider.class);
+    }
+
+    @Bean
+    UserDetailsService userDetailsService() {
+      return mock(UserDetailsService.class);
+    }
+
+    @Bean
+    MetricsController metricsController() {
+      return new MetricsController();
+    }
+  }
+
+  @RestController
+  static class MetricsController {
+    @GetMapping("/actuator/health")
+    String health() {
+      return "UP";
+    }
+
+    @GetMapping("/actuator/prometheus")
+    String prometheus() {
+      return "metrics";
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package io.github.ziy1.nexevent.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestIdNormalizationFilterTest {
+  private final RequestIdNormalizationFilter filter = new RequestIdNormalizationFilter();
+
+  private HttpServletRequest filter(MockHttpServletRequest request) throws Exception {
+    AtomicReference<ServletRequest> passedOn = new AtomicReference<>();
+    filter.doFilter(request, new MockHttpServletResponse(), (r, s) -> passedOn.set(r));
+    return (HttpServletRequest) passedOn.get();
+  }
+
+  private static MockHttpServletRequest json(String body) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/favorite");
+    request.setContentType("application/json");
+    request.setContent(body.getBytes(StandardCharsets.UTF_8));
+    return request;
+  }
+
+  private static String body(HttpServletRequest request) throws Exception {
+    return new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void requestWithoutIdsIsPassedOnUnwrapped() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/search");
+    request.setParameter("lat", "37.77");
+
+    assertThat(filter(request)).isSameAs(request);
+  }
+
+  @Test
+  void idParametersAreLowercased() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/search");
+    request.setParameter("eventId", "ABC", "Def");
+    request.setParameter("lat", "37.77");
+
+    HttpServletRequest filtered = filter(request);
+
+    assertThat(filtered.getParameter("eventId")).isEqualTo("abc");
+    assertThat(filtered.getParameterValues("eventId")).containsExactly("abc", "def");
+    assertThat(filtered.getParameter("lat")).isEqualTo("37.77");
+    assertThat(filtered.getParameterMap()).containsOnlyKeys("eventId", "lat");
+  }
+
+  @Test
+  void bodyWithLowercaseIdsIsHandedOnAsRead() throws Exception {
+    String body = "{\"userId\": \"abc\", \"password\": \"Secret\"}";
+
+    HttpServletRequest filtered = filter(json(body));
+
+    assertThat(body(filtered)).isEqualTo(body);
+  }
+
+  @Test
+  void onlyTopLevelStringIdsAreRewritten() throws Exception {
+    HttpServletRequest filtered =
+        filter(
+            json(
+                "{\"userId\":\"ABC\",\"n\":1.10000000000000000001,"
+                    + "\"nested\":{\"userId\":\"KEEP\"},\"arr\":[{\"eventId\":\"KEEP\"}],"
+                    + "\"eventId\":\"Vv1\"}"));
+
+    String expected =
+        "{\"userId\":\"abc\",\"n\":1.10000000000000000001,"
+            + "\"nested\":{\"userId\":\"KEEP\"},\"arr\":[{\"eventId\":\"KEEP\"}],"
+            + "\"eventId\":\"vv1\"}";
+    assertThat(body(filtered)).isEqualTo(expected);
+    assertThat(filtered.getContentLengthLong()).isEqualTo(expected.length());
+  }
+
+  @Test
+  void rewrittenBodyCanBeReadAsCharacters() throws Exception {
+    HttpServletRequest filtered = filter(json("{\"userId\":\"ÄBC\",\"name\":\"ü\"}"));
+
+    try (BufferedReader reader = filtered.getReader()) {
+      assertThat(reader.lines().collect(Collectors.joining()))
+          .isEqualTo("{\"userId\":\"äbc\",\"name\":\"ü\"}");
+    }
+  }
+
+  @Test
+  void nonStringIdsAndNonObjectBodiesAreLeftAlone() throws Exception {
+    String nonString = "{\"userId\":{\"x\":\"Y\"},\"eventId\":5}";
+    String array = "[{\"userId\":\"KEEP\"}]";
+
+    assertThat(body(filter(json(nonString)))).isEqualTo(nonString);
+    assertThat(body(filter(json(array)))).isEqualTo(array);
+  }
+
+  @Test
+  void invalidJsonIsLeftForTheMessageConverter() throws Exception {
+    String invalid = "{\"userId\":\"ABC\"";
+
+    assertThat(body(filter(json(invalid)))).isEqualTo(invalid);
+  }
+
+  @Test
+  void contentAfterTheRootObjectIsPassedOnAsItWas() throws Exception {
+    assertThat(body(filter(json("{\"userId\":\"A\"} \"x\""))))
+        .isEqualTo("{\"userId\":\"a\"} \"x\"");
+    assertThat(body(filter(json("{\"userId\":\"A\"}{\"userId\":\"B\"}"))))
+        .isEqualTo("{\"userId\":\"a\"}{\"userId\":\"B\"}");
+    assertThat(body(filter(json("{\"userId\":\"a\"} {\"userId\":\"B\"}"))))
+        .isEqualTo("{\"userId\":\"a\"} {\"userId\":\"B\"}");
+  }
+}
@@ -0,0 +1,112 @@
+package io.github.ziy1.nexevent.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.util.GeoHashUtil;
+
+@DataJpaTest
+@Import(EventBulkRepository.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:events;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+          + "NON_KEYWORDS=USER,VALUE;IGNORECASE=TRUE",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.jpa.hibernate.ddl-auto=create-drop"
+    })
+class EventBulkRepositoryTest {
+  @Autowired private EventBulkRepository eventBulkRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private static CachedEventDto event(
+      String id, String name, Double latitude, Double longitude, String... categories) {
+    return new CachedEventDto(
+        id,
+        name,
+        "https://example.com/" + id,
+        1.5,
+        null,
+        "1 Main St",
+        Set.of(categories),
+        latitude,
+        longitude);
+  }
+
+  private Map<String, Object> eventRow(String id) {
+    return jdbcTemplate.queryForMap("SELECT * FROM event WHERE id = ?", id);
+  }
+
+  private List<String> categoriesOf(String eventId) {
+    return jdbcTemplate.queryForList(
+        "SELECT c.name FROM category c JOIN event_category ec ON ec.category_id = c.id"
+            + " WHERE ec.event_id = ? ORDER BY c.name",
+        String.class,
+        eventId);
+  }
+
+  @Test
+  void insertsEventsWithTheirGeohash() {
+    eventBulkRepository.upsertAll(
+        List.of(
+            event("located", "Concert", 37.7749, -122.4194, "Music"),
+            event("unlocated", "Play", null, null, "Theatre")));
+
+    Map<String, Object> located = eventRow("located");
+    assertThat(located.get("name")).isEqualTo("Concert");
+    assertThat(located.get("geohash"))
+        .isEqualTo(GeoHashUtil.encodeGeohash(37.7749, -122.4194, GeoHashUtil.MAX_PRECISION));
+    assertThat(eventRow("unlocated").get("geohash")).isNull();
+    assertThat(eventRow("unlocated").get("latitude")).isNull();
+  }
+
+  @Test
+  void existingEventsAreUpdatedInPlace() {
+    eventBulkRepository.upsertAll(List.of(event("e1", "Old name", 37.0, -122.0, "Music")));
+    eventBulkRepository.upsertAll(List.of(event("e1", "New name", 38.0, -121.0, "Music")));
+
+    Map<String, Object> row = eventRow("e1");
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event", Long.class)).isOne();
+    assertThat(row.get("name")).isEqualTo("New name");
+    assertThat(row.get("latitude")).isEqualTo(38.0);
+    assertThat(row.get("geohash"))
+        .isEqualTo(GeoHashUtil.encodeGeohash(38.0, -121.0, GeoHashUtil.MAX_PRECISION));
+    assertThat(categoriesOf("e1")).containsExactly("Music");
+  }
+
+  @Test
+  void categoriesAreSharedAcrossEventsAndCase() {
+    eventBulkRepository.upsertAll(
+        List.of(
+            event("e1", "Concert", null, null, "Music", "Arts"),
+            event("e2", "Festival", null, null, "music")));
+    eventBulkRepository.upsertAll(List.of(event("e3", "Gig", null, null, "MUSIC", "Sports")));
+
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM category", Long.class))
+        .isEqualTo(3);
+    assertThat(categoriesOf("e1")).containsExactlyInAnyOrder("Music", "Arts");
+    assertThat(categoriesOf("e2")).containsExactly("Music");
+    assertThat(categoriesOf("e3")).containsExactlyInAnyOrder("Music", "Sports");
+  }
+
+  @Test
+  void emptyBatchIsANoOp() {
+    eventBulkRepository.upsertAll(List.of());
+
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event", Long.class)).isZero();
+  }
+}
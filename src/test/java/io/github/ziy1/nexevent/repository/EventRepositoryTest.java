@@ -0,0 +1,97 @@
+package io.github.ziy1.nexevent.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import io.github.ziy1.nexevent.entity.Category;
+import io.github.ziy1.nexevent.entity.Event;
+import io.github.ziy1.nexevent.entity.User;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(
+    properties = {
+      "spring.datasource.url=jdbc:h2:mem:events;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+          + "NON_KEYWORDS=USER,VALUE;IGNORECASE=TRUE",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "spring.datasource.driver-class-name=org.h2.Driver",
+      "spring.jpa.hibernate.ddl-auto=create-drop"
+    })
+class EventRepositoryTest {
+  @Autowired private TestEntityManager entityManager;
+  @Autowired private EventRepository eventRepository;
+
+  private Category category(String name) {
+    return entityManager.persist(Category.builder().name(name).build());
+  }
+
+  private Event event(String id, Category... categories) {
+    return entityManager.persist(
+        Event.builder()
+            .id(id)
+            .name(id)
+            .categories(Arrays.stream(categories).collect(Collectors.toSet()))
+            .build());
+  }
+
+  private void user(String userId, Event... favorites) {
+    entityManager.persist(
+        User.builder()
+            .userId(userId)
+            .password("hash")
+            .firstName("First")
+            .lastName("Last")
+            .favoriteEvents(Arrays.stream(favorites).collect(Collectors.toSet()))
+            .build());
+  }
+
+  @Test
+  void favoriteCategoriesAreRankedByHowManyFavoritesHaveThem() {
+    Category music = category("Music");
+    Category sports = category("Sports");
+    Category arts = category("Arts");
+    Category film = category("Film");
+    Category theatre = category("Theatre");
+
+    user(
+        "alice",
+        event("e1", music, sports),
+        event("e2", music, arts),
+        event("e3", music, sports),
+        event("e4", theatre),
+        event("e5", arts));
+    // Another user's favorites do not count
+    user("bob", event("e6", film), event("e7", film), event("e8", film));
+    entityManager.flush();
+    entityManager.clear();
+
+    // Music 3, then Arts and Sports tied at 2 by name, then Theatre 1
+    assertThat(eventRepository.findFavoriteCategoryNamesByUserId("alice"))
+        .containsExactly("Music", "Arts", "Sports", "Theatre");
+  }
+
+  @Test
+  void favoriteEventIds() {
+    Category music = category("Music");
+    Event shared = event("shared", music);
+    user("alice", shared, event("mine", music));
+    user("bob", shared);
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThat(eventRepository.findFavoriteEventIdsByUserId("alice"))
+        .isEqualTo(Set.of("shared", "mine"));
+    assertThat(eventRepository.findFavoriteCategoryNamesByUserId("nobody")).isEmpty();
+  }
+}
@@ -0,0 +1,132 @@
+package io.github.ziy1.nexevent.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtTokenProviderTest {
+  private static final String SECRET = "test-secret-that-is-at-least-32-bytes-long";
+
+  private TokenRevocationStore revocationStore;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    revocationStore = mock(TokenRevocationStore.class);
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  private JwtTokenProvider provider(int expirationMs) {
+    return new JwtTokenProvider(SECRET, expirationMs, 100, revocationStore, meterRegistry);
+  }
+
+  private static String token(JwtTokenProvider provider) {
+    return provider.generateToken(new UsernamePasswordAuthenticationToken("alice", null));
+  }
+
+  private double cacheGets(String result) {
+    return meterRegistry
+        .get("cache.gets")
+        .tag("cache", "jwt.claims")
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+
+  @Test
+  void verifiedClaimsAreReusedUntilTheTokenExpires() throws InterruptedException {
+    // JWT expiry has second precision, so this expires 2 to 3 seconds from now
+    JwtTokenProvider provider = provider(3000);
+    String token = token(provider);
+
+    assertThat(provider.parseAndVerify(token)).isPresent();
+    assertThat(provider.parseAndVerify(token)).isPresent();
+    assertThat(cacheGets("hit")).isEqualTo(1);
+
+    Thread.sleep(3100);
+
+    assertThat(provider.parseAndVerify(token)).isEmpty();
+    assertThat(cacheGets("hit")).isEqualTo(1);
+    assertThat(cacheGets("miss")).isEqualTo(2);
+  }
+
+  @Test
+  void revocationOverridesACachedVerification() {
+    JwtTokenProvider provider = provider(60_000);
+    String token = token(provider);
+    Claims claims = provider.parseAndVerify(token).orElseThrow();
+
+    // Revoked on another node: only the shared store knows
+    when(revocationStore.isRevoked(claims.getId())).thenReturn(true);
+
+    assertThat(provider.parseAndVerify(token)).isEmpty();
+    assertThat(provider.validateToken(token)).isFalse();
+    assertThat(cacheGets("hit")).isEqualTo(2);
+  }
+
+  @Test
+  void invalidateTokenRevokesItUntilItsOwnExpiry() {
+    JwtTokenProvider provider = provider(60_000);
+    String token = token(provider);
+    Claims claims = provider.parseAndVerify(token).orElseThrow();
+
+    provider.invalidateToken(token);
+
+    verify(revocationStore).revoke(claims.getId(), claims.getExpiration().getTime());
+    // Dropped from the cache, so the next check verifies the signature again
+    when(revocationStore.isRevoked(claims.getId())).thenReturn(true);
+    assertThat(provider.parseAndVerify(token)).isEmpty();
+    assertThat(cacheGets("miss")).isEqualTo(2);
+  }
+
+  @Test
+  void tamperedTokenIsRejectedAndNotCached() {
+    JwtTokenProvider provider = provider(60_000);
+    String token = token(provider);
+    String tampered = token.substring(0, token.length() - 2) + "xx";
+
+    assertThat(provider.parseAndVerify(tampered)).isEmpty();
+    assertThat(provider.parseAndVerify(tampered)).isEmpty();
+
+    assertThat(cacheGets("hit")).isZero();
+    verify(revocationStore, never()).isRevoked(anyString());
+    provider.invalidateToken(tampered);
+    verify(revocationStore, never()).revoke(anyString(), anyLong());
+  }
+
+  @Test
+  void tokenWithoutExpiryIsVerifiedEveryTime() {
+    JwtTokenProvider provider = provider(60_000);
+    String token =
+        Jwts.builder()
+            .setSubject("alice")
+            .setIssuedAt(new Date())
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+            .compact();
+
+    assertThat(provider.getUserIdFromToken(token)).isEqualTo("alice");
+    assertThat(provider.getUserIdFromToken(token)).isEqualTo("alice");
+
+    assertThat(cacheGets("hit")).isZero();
+    // No jti, so revocation is keyed by the token hash
+    verify(revocationStore, times(2)).isRevoked(argThat(id -> id.matches("[0-9a-f]{64}")));
+  }
+}
@@ -0,0 +1,116 @@
+package io.github.ziy1.nexevent.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingExecutorTest {
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private PasswordHashingExecutor executor;
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    executor.shutdown();
+  }
+
+  private long requests(String outcome) {
+    return meterRegistry
+        .get("auth.requests")
+        .tag("operation", "login")
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+
+  // Occupies the only thread until the test ends
+  private void blockTheThread() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    executor
+        .submit(
+            "block",
+            () -> {
+              started.countDown();
+              return release.await(10, TimeUnit.SECONDS);
+            })
+        .subscribe();
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  void runsTheTaskOffTheCallingThread() {
+    executor = new PasswordHashingExecutor(1, 1, 1000, meterRegistry);
+
+    StepVerifier.create(executor.submit("login", () -> Thread.currentThread().getName()))
+        .assertNext(thread -> assertThat(thread).startsWith("auth-hashing-"))
+        .verifyComplete();
+    StepVerifier.create(executor.submit("login", () -> null)).verifyComplete();
+
+    assertThat(requests("success")).isEqualTo(1);
+    assertThat(requests("refused")).isEqualTo(1);
+  }
+
+  @Test
+  void fullQueueIsRejectedRightAway() throws InterruptedException {
+    executor = new PasswordHashingExecutor(1, 1, 1000, meterRegistry);
+    blockTheThread();
+    executor.submit("login", () -> "queued").subscribe();
+
+    StepVerifier.create(executor.submit("login", () -> "rejected"))
+        .expectErrorMessage("Password hashing queue is full")
+        .verify(Duration.ofSeconds(5));
+    assertThat(requests("rejected")).isEqualTo(1);
+  }
+
+  @Test
+  void taskQueuedPastTheTimeoutIsRejectedWithoutRunning() throws InterruptedException {
+    executor = new PasswordHashingExecutor(1, 1, 20, meterRegistry);
+    blockTheThread();
+    AtomicBoolean ran = new AtomicBoolean();
+    var result =
+        executor
+            .submit(
+                "login",
+                () -> {
+                  ran.set(true);
+                  return "late";
+                })
+            .toFuture();
+
+    Thread.sleep(50);
+    release.countDown();
+
+    StepVerifier.create(Mono.fromFuture(result))
+        .expectError(RejectedExecutionException.class)
+        .verify(Duration.ofSeconds(5));
+    assertThat(ran).isFalse();
+  }
+
+  @Test
+  void failingTaskSurfacesItsError() {
+    executor = new PasswordHashingExecutor(1, 1, 1000, meterRegistry);
+
+    StepVerifier.create(
+            executor.submit(
+                "login",
+                () -> {
+                  throw new IllegalStateException("boom");
+                }))
+        .expectErrorMessage("boom")
+        .verify(Duration.ofSeconds(5));
+    assertThat(requests("error")).isEqualTo(1);
+  }
+}
@@ -0,0 +1,131 @@
+package io.github.ziy1.nexevent.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenRevocationStoreTest {
+  private ReactiveStringRedisTemplate template;
+  private ReactiveValueOperations<String, String> valueOperations;
+  private TokenRevocationStore store;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    template = mock(ReactiveStringRedisTemplate.class);
+    valueOperations = mock(ReactiveValueOperations.class);
+    when(template.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.set(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(Mono.just(true));
+    when(template.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+
+    store =
+        new TokenRevocationStore(
+            template, mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(store, "redisTimeoutMs", 1000L);
+  }
+
+  private static long inOneHour() {
+    return System.currentTimeMillis() + Duration.ofHours(1).toMillis();
+  }
+
+  private void receive(String body) {
+    store.onMessage(
+        new DefaultMessage(
+            "auth:revocations".getBytes(StandardCharsets.UTF_8),
+            body.getBytes(StandardCharsets.UTF_8)),
+        null);
+  }
+
+  @Test
+  void revokeAppliesLocallyAndSharesThroughRedis() {
+    long expiresAt = inOneHour();
+
+    store.revoke("jti-1", expiresAt);
+
+    assertThat(store.isRevoked("jti-1")).isTrue();
+    assertThat(store.isRevoked("jti-2")).isFalse();
+    verify(valueOperations)
+        .set(eq("auth:revoked:jti-1"), eq(String.valueOf(expiresAt)), any(Duration.class));
+    verify(template).convertAndSend("auth:revocations", "jti-1|" + expiresAt);
+  }
+
+  @Test
+  void alreadyExpiredTokenIsNotStored() {
+    store.revoke("jti-1", System.currentTimeMillis() - 1);
+
+    assertThat(store.isRevoked("jti-1")).isFalse();
+    verify(template, never()).opsForValue();
+  }
+
+  @Test
+  void revocationStillAppliesLocallyWhenRedisIsDown() {
+    when(valueOperations.set(anyString(), anyString(), any(Duration.class)))
+        .thenReturn(Mono.error(new RedisConnectionFailureException("down")));
+
+    store.revoke("jti-1", inOneHour());
+
+    assertThat(store.isRevoked("jti-1")).isTrue();
+  }
+
+  @Test
+  void revocationIsForgottenOnceTheTokenExpires() throws InterruptedException {
+    store.revoke("jti-1", System.currentTimeMillis() + 50);
+    assertThat(store.isRevoked("jti-1")).isTrue();
+
+    Thread.sleep(100);
+
+    assertThat(store.isRevoked("jti-1")).isFalse();
+  }
+
+  @Test
+  void messagesFromOtherNodesAreMirrored() {
+    receive("jti|with|separators|" + inOneHour());
+    receive("expired|" + (System.currentTimeMillis() - 1));
+    receive("malformed|soon");
+    receive("no-separator");
+
+    assertThat(store.isRevoked("jti|with|separators")).isTrue();
+    assertThat(store.isRevoked("expired")).isFalse();
+    assertThat(store.isRevoked("malformed")).isFalse();
+    assertThat(store.isRevoked("no-separator")).isFalse();
+  }
+
+  @Test
+  void rescanPicksUpRevocationsMissedOverPubSub() {
+    when(template.scan(any(ScanOptions.class)))
+        .thenReturn(Flux.just("auth:revoked:missed", "auth:revoked:expired"));
+    when(valueOperations.get("auth:revoked:missed"))
+        .thenReturn(Mono.just(String.valueOf(inOneHour())));
+    when(valueOperations.get("auth:revoked:expired"))
+        .thenReturn(Mono.just(String.valueOf(System.currentTimeMillis() - 1)));
+
+    store.rescan();
+
+    assertThat(store.isRevoked("missed")).isTrue();
+    assertThat(store.isRevoked("expired")).isFalse();
+  }
+}
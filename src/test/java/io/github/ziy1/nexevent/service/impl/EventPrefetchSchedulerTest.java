@@ -0,0 +1,133 @@
+package io.github.ziy1.nexevent.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import reactor.core.publisher.Mono;
+
+import io.github.ziy1.nexevent.cache.HotKeyTracker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EventPrefetchSchedulerTest {
+  private HotKeyTracker hotKeyTracker;
+  private EventServiceImpl eventService;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    hotKeyTracker = mock(HotKeyTracker.class);
+    eventService = mock(EventServiceImpl.class);
+    meterRegistry = new SimpleMeterRegistry();
+    when(hotKeyTracker.saveHotSet()).thenReturn(Mono.empty());
+    when(eventService.isPrefetchDue(any())).thenReturn(Mono.just(true));
+    when(eventService.prefetch(any())).thenReturn(Mono.empty());
+  }
+
+  private static List<HotKeyTracker.HotKey> hotKeys(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> new HotKeyTracker.HotKey("9q8yy", "k" + i))
+        .toList();
+  }
+
+  private EventPrefetchScheduler scheduler(int budgetPerMinute, int maxPagesPerSearch) {
+    EventPrefetchScheduler scheduler =
+        new EventPrefetchScheduler(hotKeyTracker, eventService, meterRegistry);
+    ReflectionTestUtils.setField(scheduler, "enabled", true);
+    ReflectionTestUtils.setField(scheduler, "topK", 50);
+    ReflectionTestUtils.setField(scheduler, "budgetPerMinute", budgetPerMinute);
+    ReflectionTestUtils.setField(scheduler, "intervalMs", 60_000L);
+    ReflectionTestUtils.setField(scheduler, "maxPagesPerSearch", maxPagesPerSearch);
+    ReflectionTestUtils.setField(scheduler, "concurrency", 2);
+    return scheduler;
+  }
+
+  private double prefetchCount() {
+    return meterRegistry.counter("ticketmaster.events.prefetches").count();
+  }
+
+  @Test
+  void budgetIsChargedPerPageNotPerSearch() {
+    assertThat(EventPrefetchScheduler.searchesPerRound(30, 60_000, 3)).isEqualTo(10);
+    assertThat(EventPrefetchScheduler.searchesPerRound(30, 30_000, 3)).isEqualTo(5);
+    assertThat(EventPrefetchScheduler.searchesPerRound(30, 60_000, 1)).isEqualTo(30);
+    // Not even one worst case search fits
+    assertThat(EventPrefetchScheduler.searchesPerRound(2, 60_000, 3)).isZero();
+  }
+
+  @Test
+  void budgetRoundsDownAndTreatsUnsetPagingAsOnePage() {
+    // 5 requests per 10 second round, one full search of 3 pages
+    assertThat(EventPrefetchScheduler.searchesPerRound(30, 10_000, 3)).isEqualTo(1);
+    assertThat(EventPrefetchScheduler.searchesPerRound(30, 10_000, 0)).isEqualTo(5);
+    // Rounds longer than a minute get proportionally more
+    assertThat(EventPrefetchScheduler.searchesPerRound(30, 120_000, 3)).isEqualTo(20);
+  }
+
+  @Test
+  void roundPrefetchesNoMoreSearchesThanTheBudgetCovers() {
+    when(hotKeyTracker.top(50)).thenReturn(hotKeys(50));
+
+    scheduler(30, 3).prefetch();
+
+    verify(eventService, times(10)).prefetch(any());
+    assertThat(prefetchCount()).isEqualTo(10);
+  }
+
+  @Test
+  void keysThatAreNotDueDoNotUseTheBudget() {
+    List<HotKeyTracker.HotKey> keys = hotKeys(30);
+    when(hotKeyTracker.top(50)).thenReturn(keys);
+    // Only every other key is close to its soft TTL
+    when(eventService.isPrefetchDue(any()))
+        .thenAnswer(invocation -> Mono.just(keys.indexOf(invocation.getArgument(0)) % 2 == 1));
+
+    scheduler(30, 3).prefetch();
+
+    ArgumentCaptor<HotKeyTracker.HotKey> prefetched =
+        ArgumentCaptor.forClass(HotKeyTracker.HotKey.class);
+    verify(eventService, times(10)).prefetch(prefetched.capture());
+    assertThat(prefetched.getAllValues())
+        .containsExactlyInAnyOrderElementsOf(
+            IntStream.range(0, 10).mapToObj(i -> keys.get(2 * i + 1)).toList());
+  }
+
+  @Test
+  void roundWithoutBudgetForOneSearchIsSkipped() {
+    scheduler(2, 3).prefetch();
+
+    verify(hotKeyTracker, never()).top(anyInt());
+    verify(eventService, never()).prefetch(any());
+    // The hot set is still decayed and shared
+    verify(hotKeyTracker).decay();
+    verify(hotKeyTracker).saveHotSet();
+  }
+
+  @Test
+  void failedPrefetchDoesNotEndTheRound() {
+    List<HotKeyTracker.HotKey> keys = hotKeys(5);
+    when(hotKeyTracker.top(50)).thenReturn(keys);
+    when(eventService.prefetch(keys.get(0)))
+        .thenReturn(Mono.error(new IllegalStateException("upstream failed")));
+
+    scheduler(30, 3).prefetch();
+
+    verify(eventService, times(5)).prefetch(any());
+    assertThat(prefetchCount()).isEqualTo(4);
+    verify(hotKeyTracker).saveHotSet();
+  }
+}
@@ -0,0 +1,400 @@
+package io.github.ziy1.nexevent.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import io.github.ziy1.nexevent.cache.HotKeyTracker;
+import io.github.ziy1.nexevent.cache.NearbyEventIndex;
+import io.github.ziy1.nexevent.cache.SingleFlightLoader;
+import io.github.ziy1.nexevent.cache.TicketMasterEventCache;
+import io.github.ziy1.nexevent.client.TicketMasterApiClient;
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.dto.CachedEventsDto;
+import io.github.ziy1.nexevent.dto.EventDto;
+import io.github.ziy1.nexevent.dto.TicketMasterEventPageDto;
+import io.github.ziy1.nexevent.exception.TicketMasterUnavailableException;
+import io.github.ziy1.nexevent.mapper.EventMapper;
+import io.github.ziy1.nexevent.repository.EventRepository;
+import io.github.ziy1.nexevent.repository.UserRepository;
+import io.github.ziy1.nexevent.util.GeoDistanceUtil;
+import io.github.ziy1.nexevent.util.GeoHashUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EventServiceImplTest {
+  private static final int CACHE_PRECISION = 5;
+  private static final double RADIUS_MILES = 10;
+  private static final long CACHE_TTL = 3600;
+  private static final long CACHE_STALE_TTL = 21600;
+  private static final double LATITUDE = 37.7749;
+  private static final double LONGITUDE = -122.4194;
+
+  private TicketMasterApiClient ticketMasterApiClient;
+  private EventRepository eventRepository;
+  private TicketMasterEventCache eventCache;
+  private ExecutorService executorService;
+  private EventServiceImpl eventService;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    ticketMasterApiClient = mock(TicketMasterApiClient.class);
+    eventRepository = mock(EventRepository.class);
+    eventCache = mock(TicketMasterEventCache.class);
+    SingleFlightLoader singleFlightLoader = mock(SingleFlightLoader.class);
+    executorService = Executors.newFixedThreadPool(2);
+
+    // Every key misses and every search comes back empty unless a test says otherwise
+    when(eventCache.get(anyString())).thenReturn(Mono.empty());
+    when(eventCache.put(anyString(), any(), anyLong())).thenReturn(Mono.empty());
+    when(ticketMasterApiClient.searchNearByEventPages(anyString(), any())).thenReturn(Flux.empty());
+    when(eventRepository.findFavoriteEventIdsByUserId(anyString())).thenReturn(Set.of());
+    // No other node holds the lock: check the cache again, then load
+    when(singleFlightLoader.load(anyString(), any(), any()))
+        .thenAnswer(
+            invocation ->
+                ((Mono<Object>) invocation.getArgument(1))
+                    .switchIfEmpty((Mono<Object>) invocation.getArgument(2)));
+
+    eventService =
+        new EventServiceImpl(
+            ticketMasterApiClient,
+            mock(UserRepository.class),
+            eventRepository,
+            mock(EventWriteBehindQueue.class),
+            new EventMapper(),
+            eventCache,
+            singleFlightLoader,
+            mock(NearbyEventIndex.class),
+            mock(HotKeyTracker.class),
+            executorService,
+            new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(eventService, "defaultKeyword", "");
+    ReflectionTestUtils.setField(eventService, "geoHashPrecision", 6);
+    ReflectionTestUtils.setField(eventService, "cacheGeoHashPrecision", CACHE_PRECISION);
+    ReflectionTestUtils.setField(eventService, "neighborProbeEnabled", true);
+    ReflectionTestUtils.setField(eventService, "searchRadiusMiles", RADIUS_MILES);
+    ReflectionTestUtils.setField(eventService, "localIndexEnabled", false);
+    ReflectionTestUtils.setField(eventService, "cacheTtl", CACHE_TTL);
+    ReflectionTestUtils.setField(eventService, "cacheStaleTtl", CACHE_STALE_TTL);
+    // No probabilistic early refresh, so freshness is decided by the soft TTL alone
+    ReflectionTestUtils.setField(eventService, "earlyRefreshBeta", 0.0);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  private static String cacheKey(long cell, String keyword) {
+    return TicketMasterEventCache.KEY_PREFIX
+        + "geo:"
+        + GeoHashUtil.toBase32(cell, CACHE_PRECISION)
+        + ":kw:"
+        + keyword;
+  }
+
+  private static String cacheKey(String keyword) {
+    return cacheKey(GeoHashUtil.encode(LATITUDE, LONGITUDE, CACHE_PRECISION), keyword);
+  }
+
+  private static CachedEventsDto fetchedSecondsAgo(long seconds, CachedEventDto... events) {
+    return new CachedEventsDto(List.of(events), System.currentTimeMillis() - seconds * 1000, 100);
+  }
+
+  // Entries without coordinates keep the distance they were cached with
+  private static CachedEventDto unlocatedEvent(String id, double distance) {
+    return new CachedEventDto(id, id, null, distance, null, null, Set.of(), null, null);
+  }
+
+  private void recommendWith(
+      long categoryTimeoutMs, long deadlineMs, int maxEvents, String... favoriteCategories) {
+    ReflectionTestUtils.setField(eventService, "recommendConcurrency", 4);
+    ReflectionTestUtils.setField(eventService, "recommendCategoryTimeoutMs", categoryTimeoutMs);
+    ReflectionTestUtils.setField(eventService, "recommendDeadlineMs", deadlineMs);
+    ReflectionTestUtils.setField(eventService, "recommendMaxEvents", maxEvents);
+    when(eventRepository.findFavoriteCategoryNamesByUserId("user"))
+        .thenReturn(List.of(favoriteCategories));
+  }
+
+  private void cacheCategory(String category, Mono<CachedEventsDto> entry) {
+    when(eventCache.get(cacheKey(category))).thenReturn(entry);
+  }
+
+  private static List<String> eventIds(List<EventDto> events) {
+    return events.stream().map(EventDto::id).toList();
+  }
+
+  private static CachedEventDto event(String id, double latitude, double longitude) {
+    return new CachedEventDto(id, id, null, 0, null, null, Set.of(), latitude, longitude);
+  }
+
+  private static List<String> ids(CachedEventsDto events) {
+    return events.events().stream().map(CachedEventDto::id).toList();
+  }
+
+  @Test
+  void callerAtACellBoundaryGetsTheSameAnswerFromEitherCell() {
+    long cell = GeoHashUtil.encode(37.7749, -122.4194, CACHE_PRECISION);
+    long northCell = GeoHashUtil.neighbor(cell, CACHE_PRECISION, 1, 0);
+    double[] box = new double[4];
+    GeoHashUtil.boundingBox(cell, CACHE_PRECISION, box);
+    // Just south of the boundary with the northern cell
+    double latitude = box[1] - 0.001;
+    double longitude = (box[2] + box[3]) / 2;
+
+    double milesPerDegree = GeoDistanceUtil.MILES_PER_DEGREE_LATITUDE;
+    List<CachedEventDto> events = new ArrayList<>();
+    events.add(event("north-near", latitude + 2 / milesPerDegree, longitude));
+    events.add(event("south-near", latitude - 1 / milesPerDegree, longitude));
+    events.add(event("north-edge", latitude + 9 / milesPerDegree, longitude));
+    // Close to the northern cell's center, but outside the caller's radius
+    events.add(event("north-far", latitude + 15 / milesPerDegree, longitude));
+    events.add(event("south-far", latitude - 25 / milesPerDegree, longitude));
+
+    // Each cell's entry is ordered by distance from its own fetch point
+    double northLatitude = GeoHashUtil.decodeLatitude(northCell, CACHE_PRECISION);
+    List<CachedEventDto> fromNorth = new ArrayList<>(events);
+    fromNorth.sort(
+        (a, b) ->
+            Double.compare(
+                Math.abs(a.latitude() - northLatitude), Math.abs(b.latitude() - northLatitude)));
+    List<CachedEventDto> fromOwnCell = new ArrayList<>(events);
+    Collections.reverse(fromOwnCell);
+
+    CachedEventsDto servedByNorth =
+        EventServiceImpl.withDistancesFrom(
+            new CachedEventsDto(fromNorth, 1, 1), latitude, longitude, RADIUS_MILES);
+    CachedEventsDto servedByOwnCell =
+        EventServiceImpl.withDistancesFrom(
+            new CachedEventsDto(fromOwnCell, 1, 1), latitude, longitude, RADIUS_MILES);
+
+    assertThat(ids(servedByNorth)).containsExactly("south-near", "north-near", "north-edge");
+    assertThat(servedByOwnCell.events()).isEqualTo(servedByNorth.events());
+    assertThat(servedByNorth.events().get(0).distance()).isEqualTo(1.0);
+  }
+
+  @Test
+  void eventsWithoutCoordinatesKeepTheirDistance() {
+    CachedEventDto unlocated =
+        new CachedEventDto("unlocated", "unlocated", null, 3.5, null, null, Set.of(), null, null);
+    CachedEventDto located = event("located", 37.7749, -122.4194);
+
+    CachedEventsDto result =
+        EventServiceImpl.withDistancesFrom(
+            new CachedEventsDto(List.of(unlocated, located), 1, 1),
+            37.7749,
+            -122.4194,
+            RADIUS_MILES);
+
+    assertThat(ids(result)).containsExactly("located", "unlocated");
+    assertThat(result.events().get(1).distance()).isEqualTo(3.5);
+  }
+
+  @Test
+  void staleEntryIsServedWhileItIsRefreshedInTheBackground() {
+    String key = cacheKey("music");
+    when(eventCache.get(key))
+        .thenReturn(
+            Mono.just(fetchedSecondsAgo(CACHE_TTL + 60, event("old", LATITUDE, LONGITUDE))));
+    when(ticketMasterApiClient.searchNearByEventPages(anyString(), eq("music")))
+        .thenReturn(
+            Flux.just(new TicketMasterEventPageDto(List.of(event("new", LATITUDE, LONGITUDE)), 1)));
+
+    StepVerifier.create(
+            eventService.searchNearByEventsReactive("user", LATITUDE, LONGITUDE, "music"))
+        .assertNext(events -> assertThat(eventIds(events)).containsExactly("old"))
+        .verifyComplete();
+
+    verify(eventCache, timeout(1000))
+        .put(eq(key), any(CachedEventsDto.class), eq(CACHE_TTL + CACHE_STALE_TTL));
+  }
+
+  @Test
+  void freshEntryIsServedWithoutARefresh() {
+    when(eventCache.get(cacheKey("music")))
+        .thenReturn(Mono.just(fetchedSecondsAgo(60, event("cached", LATITUDE, LONGITUDE))));
+
+    StepVerifier.create(
+            eventService.searchNearByEventsReactive("user", LATITUDE, LONGITUDE, "music"))
+        .assertNext(events -> assertThat(eventIds(events)).containsExactly("cached"))
+        .verifyComplete();
+
+    verify(ticketMasterApiClient, never()).searchNearByEventPages(anyString(), any());
+    verify(eventCache, never()).put(anyString(), any(), anyLong());
+  }
+
+  @Test
+  void failedRefreshKeepsServingTheStaleEntry() {
+    when(eventCache.get(cacheKey("music")))
+        .thenReturn(
+            Mono.just(fetchedSecondsAgo(CACHE_TTL + 60, event("old", LATITUDE, LONGITUDE))));
+    // No pages is how a failed search comes back
+
+    for (int i = 0; i < 2; i++) {
+      StepVerifier.create(
+              eventService.searchNearByEventsReactive("user", LATITUDE, LONGITUDE, "music"))
+          .assertNext(events -> assertThat(eventIds(events)).containsExactly("old"))
+          .verifyComplete();
+    }
+
+    verify(eventCache, never()).put(anyString(), any(), anyLong());
+  }
+
+  @Test
+  void recommendationsAreMergedInCategoryRankOrder() {
+    recommendWith(2000, 3000, 100, "Music", "Sports");
+    when(eventRepository.findFavoriteEventIdsByUserId("user")).thenReturn(Set.of("favorite"));
+    // The top ranked category completes last
+    cacheCategory(
+        "Music",
+        Mono.just(
+                fetchedSecondsAgo(
+                    0,
+                    unlocatedEvent("music-far", 5),
+                    unlocatedEvent("both", 3),
+                    unlocatedEvent("favorite", 1),
+                    unlocatedEvent("music-near", 2)))
+            .delayElement(Duration.ofMillis(100)));
+    cacheCategory(
+        "Sports",
+        Mono.just(fetchedSecondsAgo(0, unlocatedEvent("sports", 1), unlocatedEvent("both", 3))));
+
+    StepVerifier.create(eventService.getRecommendedEventsReactive("user", LATITUDE, LONGITUDE))
+        .assertNext(
+            events ->
+                assertThat(eventIds(events))
+                    .containsExactly("music-near", "both", "music-far", "sports"))
+        .verifyComplete();
+  }
+
+  @Test
+  void categoryPastItsTimeoutIsSkipped() {
+    recommendWith(200, 5000, 100, "Music", "Sports", "Arts");
+    cacheCategory("Music", Mono.just(fetchedSecondsAgo(0, unlocatedEvent("music", 1))));
+    cacheCategory("Sports", Mono.never());
+    cacheCategory("Arts", Mono.just(fetchedSecondsAgo(0, unlocatedEvent("arts", 1))));
+
+    StepVerifier.create(eventService.getRecommendedEventsReactive("user", LATITUDE, LONGITUDE))
+        .assertNext(events -> assertThat(eventIds(events)).containsExactly("music", "arts"))
+        .expectComplete()
+        .verify(Duration.ofSeconds(2));
+  }
+
+  @Test
+  void deadlineReturnsWhateverCategoriesHaveCompleted() {
+    recommendWith(5000, 300, 100, "Music", "Sports");
+    cacheCategory(
+        "Music",
+        Mono.just(fetchedSecondsAgo(0, unlocatedEvent("music", 1)))
+            .delayElement(Duration.ofSeconds(2)));
+    cacheCategory("Sports", Mono.just(fetchedSecondsAgo(0, unlocatedEvent("sports", 1))));
+
+    StepVerifier.create(eventService.getRecommendedEventsReactive("user", LATITUDE, LONGITUDE))
+        .assertNext(events -> assertThat(eventIds(events)).containsExactly("sports"))
+        .expectComplete()
+        .verify(Duration.ofSeconds(1));
+  }
+
+  @Test
+  void remainingCategoriesAreCancelledOnceEnoughEventsAreCollected() {
+    recommendWith(5000, 5000, 2, "Music", "Sports");
+    cacheCategory("Music", Mono.never());
+    cacheCategory(
+        "Sports",
+        Mono.just(
+            fetchedSecondsAgo(0, unlocatedEvent("sports-1", 1), unlocatedEvent("sports-2", 2))));
+
+    StepVerifier.create(eventService.getRecommendedEventsReactive("user", LATITUDE, LONGITUDE))
+        .assertNext(events -> assertThat(eventIds(events)).containsExactly("sports-1", "sports-2"))
+        .expectComplete()
+        .verify(Duration.ofSeconds(1));
+  }
+
+  // Just south of the boundary with the northern neighbor of the default cell
+  private static double[] callerBelowNorthernCell() {
+    double[] box = new double[4];
+    GeoHashUtil.boundingBox(
+        GeoHashUtil.encode(LATITUDE, LONGITUDE, CACHE_PRECISION), CACHE_PRECISION, box);
+    return new double[] {box[1] - 0.001, (box[2] + box[3]) / 2};
+  }
+
+  private void cacheNorthernCell(CachedEventsDto entry) {
+    long cell = GeoHashUtil.encode(LATITUDE, LONGITUDE, CACHE_PRECISION);
+    long northCell = GeoHashUtil.neighbor(cell, CACHE_PRECISION, 1, 0);
+    when(eventCache.get(cacheKey(northCell, "music"))).thenReturn(Mono.just(entry));
+  }
+
+  private List<EventDto> search(double[] caller) {
+    return eventService
+        .searchNearByEventsReactive("user", caller[0], caller[1], "music")
+        .block(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void ownCellMissIsServedFromAFreshNeighborEntry() {
+    double[] caller = callerBelowNorthernCell();
+    double milesPerDegree = GeoDistanceUtil.MILES_PER_DEGREE_LATITUDE;
+    cacheNorthernCell(
+        fetchedSecondsAgo(
+            60,
+            event("far", caller[0] + 20 / milesPerDegree, caller[1]),
+            event("near", caller[0] + 1 / milesPerDegree, caller[1]),
+            event("mid", caller[0] - 4 / milesPerDegree, caller[1])));
+
+    List<EventDto> result = search(caller);
+
+    // Re-distanced from the caller: sorted, and outside the radius dropped
+    assertThat(eventIds(result)).containsExactly("near", "mid");
+    assertThat(result.get(0).distance()).isEqualTo(1.0);
+    verify(ticketMasterApiClient, never()).searchNearByEventPages(anyString(), any());
+  }
+
+  @Test
+  void staleNeighborEntryDoesNotStandInForAFetch() {
+    double[] caller = callerBelowNorthernCell();
+    cacheNorthernCell(fetchedSecondsAgo(CACHE_TTL + 60, event("neighbor", caller[0], caller[1])));
+    when(ticketMasterApiClient.searchNearByEventPages(anyString(), eq("music")))
+        .thenReturn(
+            Flux.just(
+                new TicketMasterEventPageDto(List.of(event("fetched", caller[0], caller[1])), 1)));
+
+    assertThat(eventIds(search(caller))).containsExactly("fetched");
+    verify(eventCache).put(eq(cacheKey("music")), any(), eq(CACHE_TTL + CACHE_STALE_TTL));
+  }
+
+  @Test
+  void staleNeighborEntryIsServedWhenTicketmasterIsUnavailable() {
+    double[] caller = callerBelowNorthernCell();
+    cacheNorthernCell(fetchedSecondsAgo(CACHE_TTL + 60, event("neighbor", caller[0], caller[1])));
+    when(ticketMasterApiClient.searchNearByEventPages(anyString(), eq("music")))
+        .thenReturn(Flux.error(new TicketMasterUnavailableException("throttled")));
+
+    assertThat(eventIds(search(caller))).containsExactly("neighbor");
+  }
+}
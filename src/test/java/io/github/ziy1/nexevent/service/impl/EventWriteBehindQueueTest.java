@@ -0,0 +1,142 @@
+package io.github.ziy1.nexevent.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import io.github.ziy1.nexevent.dto.CachedEventDto;
+import io.github.ziy1.nexevent.repository.EventBulkRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EventWriteBehindQueueTest {
+  private static final long NEVER = 3_600_000;
+
+  private EventBulkRepository repository;
+  private SimpleMeterRegistry meterRegistry;
+  private EventWriteBehindQueue queue;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(EventBulkRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (queue != null) {
+      queue.shutdown();
+    }
+  }
+
+  private EventWriteBehindQueue newQueue(
+      int capacity, int batchSize, long flushIntervalMs, int maxRetries) {
+    queue =
+        new EventWriteBehindQueue(
+            repository, meterRegistry, capacity, batchSize, flushIntervalMs, maxRetries, 100, 60);
+    return queue;
+  }
+
+  private static CachedEventDto event(String id, String name) {
+    return new CachedEventDto(id, name, "", 0, "", "", Set.of(), null, null);
+  }
+
+  @Test
+  void flushesFullBatchesWithTheLatestCopyOfEachEvent() {
+    newQueue(10, 2, NEVER, 3);
+
+    queue.enqueue(List.of(event("a", "old")));
+    queue.enqueue(List.of(event("a", "new"), event("b", "b")));
+
+    verify(repository, timeout(1000)).upsertAll(List.of(event("a", "new"), event("b", "b")));
+    assertThat(queue.size()).isZero();
+  }
+
+  @Test
+  void failedBatchIsRetriedOnTheNextFlush() {
+    doThrow(new DataAccessResourceFailureException("down"))
+        .doNothing()
+        .when(repository)
+        .upsertAll(anyList());
+    newQueue(10, 100, 20, 3);
+
+    queue.enqueue(List.of(event("a", "a")));
+
+    verify(repository, timeout(1000).times(2)).upsertAll(List.of(event("a", "a")));
+    assertThat(queue.size()).isZero();
+    assertThat(meterRegistry.counter("events.write-behind.failed").count()).isZero();
+  }
+
+  @Test
+  void eventOutOfRetriesIsStillPersistedWhenFavorited() {
+    doThrow(new DataAccessResourceFailureException("down")).when(repository).upsertAll(anyList());
+    newQueue(10, 100, 20, 1);
+
+    queue.enqueue(List.of(event("a", "a")));
+    verify(repository, timeout(1000).times(2)).upsertAll(List.of(event("a", "a")));
+    doNothing().when(repository).upsertAll(anyList());
+    // Runs on the writer thread, after the failed flush has given up on the event
+    assertThat(queue.persistNow("a")).isTrue();
+    verify(repository, timeout(1000).times(3)).upsertAll(List.of(event("a", "a")));
+    assertThat(queue.size()).isZero();
+    assertThat(meterRegistry.counter("events.write-behind.failed").count()).isEqualTo(1);
+  }
+
+  @Test
+  void droppedEventIsStillPersistedWhenFavorited() {
+    newQueue(3, 100, NEVER, 3);
+
+    queue.enqueue(List.of(event("a", "a"), event("b", "b"), event("c", "c"), event("d", "d")));
+    assertThat(queue.size()).isEqualTo(3);
+    assertThat(meterRegistry.counter("events.write-behind.dropped").count()).isEqualTo(1);
+
+    assertThat(queue.persistNow("a")).isTrue();
+    verify(repository).upsertAll(List.of(event("a", "a")));
+    // Written once, not kept around
+    assertThat(queue.persistNow("a")).isFalse();
+  }
+
+  @Test
+  void persistNowTakesAPendingEventOutOfTheQueue() {
+    newQueue(10, 100, NEVER, 3);
+
+    queue.enqueue(List.of(event("a", "a"), event("b", "b")));
+
+    assertThat(queue.persistNow("b")).isTrue();
+    verify(repository).upsertAll(List.of(event("b", "b")));
+    assertThat(queue.size()).isEqualTo(1);
+  }
+
+  @Test
+  void persistNowFailureKeepsTheEventQueued() {
+    doThrow(new DataAccessResourceFailureException("down")).when(repository).upsertAll(anyList());
+    newQueue(10, 100, NEVER, 3);
+    queue.enqueue(List.of(event("a", "a")));
+
+    assertThatThrownBy(() -> queue.persistNow("a"))
+        .isInstanceOf(DataAccessResourceFailureException.class);
+    assertThat(queue.size()).isEqualTo(1);
+  }
+
+  @Test
+  void persistNowIgnoresUnknownEvents() {
+    newQueue(10, 100, NEVER, 3);
+
+    assertThat(queue.persistNow("missing")).isFalse();
+    verify(repository, never()).upsertAll(anyList());
+  }
+}
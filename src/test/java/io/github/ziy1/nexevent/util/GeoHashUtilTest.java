@@ -0,0 +1,175 @@
+package io.github.ziy1.nexevent.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class GeoHashUtilTest {
+  private static final String BASE_32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+  // The string implementation the long based one replaced, kept as the reference
+  private static String referenceGeohash(double latitude, double longitude, int precision) {
+    double[] latRange = {-90.0, 90.0};
+    double[] lonRange = {-180.0, 180.0};
+    boolean isEven = true;
+    int bit = 0;
+    int base32CharIndex = 0;
+    StringBuilder geohash = new StringBuilder();
+
+    while (geohash.length() < precision) {
+      double[] range = isEven ? lonRange : latRange;
+      double value = isEven ? longitude : latitude;
+      double mid = (range[0] + range[1]) / 2;
+      if (value >= mid) {
+        range[0] = mid;
+        base32CharIndex = (base32CharIndex << 1) | 1;
+      } else {
+        range[1] = mid;
+        base32CharIndex = base32CharIndex << 1;
+      }
+      isEven = !isEven;
+
+      if (bit < 4) {
+        bit++;
+      } else {
+        geohash.append(BASE_32.charAt(base32CharIndex));
+        bit = 0;
+        base32CharIndex = 0;
+      }
+    }
+    return geohash.toString();
+  }
+
+  @Test
+  void matchesTheReferenceImplementationOnRandomPoints() {
+    Random random = new Random(42);
+    for (int i = 0; i < 100_000; i++) {
+      double latitude = random.nextDouble() * 180.0 - 90.0;
+      double longitude = random.nextDouble() * 360.0 - 180.0;
+      int precision = 1 + random.nextInt(GeoHashUtil.MAX_PRECISION);
+
+      assertThat(GeoHashUtil.encodeGeohash(latitude, longitude, precision))
+          .as("%s,%s at %d", latitude, longitude, precision)
+          .isEqualTo(referenceGeohash(latitude, longitude, precision));
+    }
+  }
+
+  @Test
+  void matchesTheReferenceImplementationOnCellEdges() {
+    double[] latitudes = {-90.0, -45.0, -0.0, 0.0, 22.5, 45.0, 89.999999, 90.0};
+    double[] longitudes = {-180.0, -90.0, 0.0, 11.25, 90.0, 179.999999, 180.0};
+    for (double latitude : latitudes) {
+      for (double longitude : longitudes) {
+        for (int precision = 1; precision <= GeoHashUtil.MAX_PRECISION; precision++) {
+          assertThat(GeoHashUtil.encodeGeohash(latitude, longitude, precision))
+              .as("%s,%s at %d", latitude, longitude, precision)
+              .isEqualTo(referenceGeohash(latitude, longitude, precision));
+        }
+      }
+    }
+  }
+
+  @Test
+  void knownHash() {
+    assertThat(GeoHashUtil.encodeGeohash(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+  }
+
+  @Test
+  void bulkEncodeMatchesSingleEncode() {
+    double[] latitudes = {37.7749, -33.8688, 51.5074};
+    double[] longitudes = {-122.4194, 151.2093, -0.1278};
+    long[] hashes = new long[3];
+
+    GeoHashUtil.encode(latitudes, longitudes, 7, hashes);
+
+    for (int i = 0; i < hashes.length; i++) {
+      assertThat(hashes[i]).isEqualTo(GeoHashUtil.encode(latitudes[i], longitudes[i], 7));
+    }
+  }
+
+  @Test
+  void base32RoundTripsAndRejectsInvalidCharacters() {
+    long hash = GeoHashUtil.encode(37.7749, -122.4194, 9);
+
+    assertThat(GeoHashUtil.fromBase32(GeoHashUtil.toBase32(hash, 9))).isEqualTo(hash);
+    assertThat(GeoHashUtil.fromBase32("9Q8YY")).isEqualTo(GeoHashUtil.fromBase32("9q8yy"));
+    assertThatThrownBy(() -> GeoHashUtil.fromBase32("9q8ya"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void decodedCenterIsInsideTheCell() {
+    for (int precision = 1; precision <= GeoHashUtil.MAX_PRECISION; precision++) {
+      long hash = GeoHashUtil.encode(37.7749, -122.4194, precision);
+      double[] box = new double[4];
+      GeoHashUtil.boundingBox(hash, precision, box);
+
+      assertThat(37.7749).isBetween(box[0], box[1]);
+      assertThat(-122.4194).isBetween(box[2], box[3]);
+      assertThat(
+              GeoHashUtil.encode(
+                  GeoHashUtil.decodeLatitude(hash, precision),
+                  GeoHashUtil.decodeLongitude(hash, precision),
+                  precision))
+          .isEqualTo(hash);
+    }
+  }
+
+  @Test
+  void neighborsAreAdjacentCells() {
+    long hash = GeoHashUtil.fromBase32("9q8yy");
+    long[] neighbors = new long[8];
+
+    GeoHashUtil.neighbors(hash, 5, neighbors);
+
+    // Clockwise from north
+    assertThat(neighbors)
+        .containsExactly(
+            GeoHashUtil.fromBase32("9q8zn"),
+            GeoHashUtil.fromBase32("9q8zp"),
+            GeoHashUtil.fromBase32("9q8yz"),
+            GeoHashUtil.fromBase32("9q8yx"),
+            GeoHashUtil.fromBase32("9q8yw"),
+            GeoHashUtil.fromBase32("9q8yt"),
+            GeoHashUtil.fromBase32("9q8yv"),
+            GeoHashUtil.fromBase32("9q8zj"));
+  }
+
+  @Test
+  void longitudeWrapsAndLatitudeStopsAtThePoles() {
+    long east = GeoHashUtil.encode(0.1, 179.9, 3);
+    long west = GeoHashUtil.encode(0.1, -179.9, 3);
+    long north = GeoHashUtil.encode(89.9, 0.1, 3);
+
+    assertThat(GeoHashUtil.neighbor(east, 3, 0, 1)).isEqualTo(west);
+    assertThat(GeoHashUtil.neighbor(north, 3, 1, 0)).isEqualTo(north);
+  }
+
+  @Test
+  void radiusCoverContainsEveryPointOfTheCircle() {
+    double latitude = 37.7749;
+    double longitude = -122.4194;
+    double radiusKm = 20;
+    long[] cover = new long[9];
+    int count = GeoHashUtil.coverRadius(latitude, longitude, radiusKm, cover);
+    int precision = GeoHashUtil.precisionForRadius(latitude, radiusKm);
+
+    for (int degrees = 0; degrees < 360; degrees += 5) {
+      double bearing = Math.toRadians(degrees);
+      double pointLatitude = latitude + radiusKm / 110.574 * Math.cos(bearing);
+      double pointLongitude =
+          longitude
+              + radiusKm / (111.320 * Math.cos(Math.toRadians(pointLatitude))) * Math.sin(bearing);
+      long cell = GeoHashUtil.encode(pointLatitude, pointLongitude, precision);
+
+      boolean covered = false;
+      for (int i = 0; i < count; i++) {
+        covered |= cover[i] == cell;
+      }
+      assertThat(covered).as("bearing %d", degrees).isTrue();
+    }
+  }
+}